@@ -0,0 +1,35 @@
+package dao;
+
+import flight.Flights;
+import org.openjdk.jmh.annotations.*;
+import utils.SyntheticNetwork;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ConvertFlightsToXMLBenchmark {
+    @Param({"1", "2"})
+    int numberOfFlights;
+
+    @Param({"1", "4"})
+    int numberOfPassengers;
+
+    Flights flights;
+
+    @Setup
+    public void setUp() {
+        SyntheticNetwork network = new SyntheticNetwork(LocalDate.of(2020, 5, 10), LocalDate.of(2020, 5, 10), 40, 509);
+        flights = network.randomFlights(numberOfFlights, 509);
+    }
+
+    @Benchmark
+    public String buildPostXML() {
+        return ConvertFlightsToXML.buildPostXML(flights, numberOfPassengers);
+    }
+}
@@ -0,0 +1,29 @@
+package dao;
+
+import airport.Airports;
+import org.openjdk.jmh.annotations.*;
+import utils.SyntheticNetwork;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DaoAirportBenchmark {
+    String xmlAirports;
+
+    @Setup
+    public void setUp() {
+        SyntheticNetwork network = new SyntheticNetwork(LocalDate.of(2020, 5, 10), LocalDate.of(2020, 5, 10), 0, 509);
+        xmlAirports = network.airportsXml();
+    }
+
+    @Benchmark
+    public Airports addAll() {
+        return DaoAirport.addAll(xmlAirports);
+    }
+}
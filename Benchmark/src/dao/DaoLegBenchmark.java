@@ -0,0 +1,49 @@
+package dao;
+
+import leg.Legs;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import utils.SyntheticNetwork;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DaoLegBenchmark {
+    @Param({"100", "1000", "5000"})
+    int numberOfLegs;
+
+    String xmlLegs;
+    byte[] xmlLegsBytes;
+
+    @Setup
+    public void setUp() {
+        // Legs refer to airports and planes through the database, so the network must be loaded first
+        SyntheticNetwork network = new SyntheticNetwork(LocalDate.of(2020, 5, 10), LocalDate.of(2020, 5, 12), 40, 509);
+        network.loadInto(LocalFlightDatabase.getInstance());
+        xmlLegs = network.legsXml(numberOfLegs);
+        xmlLegsBytes = xmlLegs.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public Legs addAllFromString() {
+        return DaoLeg.addAll(xmlLegs);
+    }
+
+    @Benchmark
+    public Legs addAllFromStream() {
+        return DaoLeg.addAll(new ByteArrayInputStream(xmlLegsBytes));
+    }
+
+    @Benchmark
+    public void addAllToConsumer(Blackhole blackhole) {
+        DaoLeg.addAll(new ByteArrayInputStream(xmlLegsBytes), blackhole::consume);
+    }
+}
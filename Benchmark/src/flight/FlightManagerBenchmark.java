@@ -0,0 +1,62 @@
+package flight;
+
+import dao.LocalFlightDatabase;
+import org.openjdk.jmh.annotations.*;
+import ui.UIModel;
+import utils.Saps;
+import utils.SyntheticNetwork;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FlightManagerBenchmark {
+    @Param({"40", "200"})
+    int legsPerAirportPerDay;
+
+    @Param({"Departure", "Arrival"})
+    String timeType;
+
+    @Param({"false", "true"})
+    boolean isParallel;
+
+    @Param({"false", "true"})
+    boolean isBidirectional;
+
+    UIModel flightFilter;
+
+    @Setup
+    public void setUp() {
+        LocalDate flightDate = LocalDate.of(2020, 5, 12);
+        // Windows of two layovers can reach the day before and the day after the flight date
+        SyntheticNetwork network = new SyntheticNetwork(flightDate.minusDays(2), flightDate.plusDays(2), legsPerAirportPerDay, 509);
+        network.loadInto(LocalFlightDatabase.getInstance());
+
+        flightFilter = new UIModel();
+        flightFilter.departureAirport(network.airport("BOS"));
+        flightFilter.arrivalAirport(network.airport("LAX"));
+        flightFilter.flightLocalDate(flightDate);
+        flightFilter.startFlightLocalTime(LocalTime.of(6, 0));
+        flightFilter.endFlightLocalTime(LocalTime.of(18, 0));
+        flightFilter.timeType(timeType);
+        flightFilter.seatingType(Saps.SEATING_TYPES.get(0));
+        flightFilter.numberOfPassengers(1);
+        flightFilter.numberOfLayovers(2);
+    }
+
+    @Benchmark
+    public Flights completeQueue() {
+        FlightManager flightManager = new FlightManager(flightFilter);
+        flightManager.parallelSearch(isParallel);
+        flightManager.bidirectionalSearch(isBidirectional);
+        flightManager.enqueueFlight(new Flight(flightFilter.seatingType()));
+        flightManager.completeQueue();
+        return flightManager.validFlights();
+    }
+}
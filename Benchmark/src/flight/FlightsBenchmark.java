@@ -0,0 +1,65 @@
+package flight;
+
+import org.openjdk.jmh.annotations.*;
+import utils.SyntheticNetwork;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FlightsBenchmark {
+    @Param({"100", "1000", "5000"})
+    int numberOfFlights;
+
+    Flights unsortedFlights;
+
+    @Setup
+    public void setUp() {
+        SyntheticNetwork network = new SyntheticNetwork(LocalDate.of(2020, 5, 10), LocalDate.of(2020, 5, 12), 40, 509);
+        unsortedFlights = network.randomFlights(numberOfFlights, 509);
+    }
+
+    /**
+     * Copies the unsorted flights, so every invocation sorts the same order. The copy is small next to the sort.
+     *
+     * @return A new list of the unsorted flights
+     */
+    private Flights copyOfUnsortedFlights() {
+        Flights flights = new Flights();
+        flights.addAll(unsortedFlights);
+        return flights;
+    }
+
+    @Benchmark
+    public Flights sortByPrice() {
+        Flights flights = copyOfUnsortedFlights();
+        flights.sortByPrice(true);
+        return flights;
+    }
+
+    @Benchmark
+    public Flights sortByTravelDuration() {
+        Flights flights = copyOfUnsortedFlights();
+        flights.sortByTravelDuration(true);
+        return flights;
+    }
+
+    @Benchmark
+    public Flights sortByDepartureTime() {
+        Flights flights = copyOfUnsortedFlights();
+        flights.sortByDepatureTime(true);
+        return flights;
+    }
+
+    @Benchmark
+    public Flights sortByArrivalTime() {
+        Flights flights = copyOfUnsortedFlights();
+        flights.sortByArrivalTime(true);
+        return flights;
+    }
+}
@@ -0,0 +1,255 @@
+package utils;
+
+import airport.Airport;
+import airport.Airports;
+import dao.LocalFlightDatabase;
+import flight.Flight;
+import flight.Flights;
+import leg.Leg;
+import leg.Legs;
+import plane.Plane;
+import plane.Planes;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeSet;
+
+/**
+ * A reproducible flight network for benchmarks, built without the server.
+ *
+ * The network has one airport for each airport in Saps.AIRPORT_TIMEZONES and a fixed number of legs boarding at
+ * each airport on each day, with random destinations, times, prices and reservations. The same seed always builds
+ * the same network. The network can be loaded into the LocalFlightDatabase so that searches never contact the
+ * server, and written as server XML for the parsing benchmarks.
+ *
+ * @author agent
+ * @version 1.0 2026-10-18
+ * @since 2026-10-18
+ *
+ */
+public class SyntheticNetwork {
+    /** All times given by the server are in GMT */
+    private static final ZoneId gmt = ZoneId.ofOffset("GMT", ZoneOffset.ofHours(0));
+    /** Format of the times given by the server */
+    private static final DateTimeFormatter serverDateTimeStyle = DateTimeFormatter.ofPattern("yyyy MMM dd HH:mm zzz", Locale.US);
+    /** Plane models, manufacturers, coach seats and first class seats */
+    private static final Object[][] PLANE_TYPES = {
+            {"A310", "Airbus", 200, 18}, {"A320", "Airbus", 150, 12}, {"A340", "Airbus", 260, 30},
+            {"737", "Boeing", 140, 12}, {"747", "Boeing", 350, 40}, {"757", "Boeing", 180, 20},
+            {"767", "Boeing", 210, 24}, {"777", "Boeing", 300, 36}};
+
+    private final Airports airports = new Airports();
+    private final Planes planes = new Planes();
+    private final Legs legs = new Legs();
+    private final LocalDate firstDate;
+    private final LocalDate lastDate;
+
+    /**
+     * Constructor builds the airports, planes and legs of the network
+     *
+     * @param firstDate The first boarding date of the legs
+     * @param lastDate The last boarding date of the legs
+     * @param legsPerAirportPerDay The number of legs boarding at each airport on each day
+     * @param seed The seed for the random values of the network
+     */
+    public SyntheticNetwork(LocalDate firstDate, LocalDate lastDate, int legsPerAirportPerDay, long seed) {
+        this.firstDate = firstDate;
+        this.lastDate = lastDate;
+        Random random = new Random(seed);
+
+        for (String code : new TreeSet<>(Saps.AIRPORT_TIMEZONES.keySet())) {
+            Airport airport = new Airport();
+            airport.code(code);
+            airport.name(code + " International");
+            airport.latitude(random.nextDouble() * 50 + 20);
+            airport.longitude(random.nextDouble() * -60 - 60);
+            airports.add(airport);
+        }
+
+        for (Object[] planeType : PLANE_TYPES) {
+            Plane plane = new Plane();
+            plane.model((String) planeType[0]);
+            plane.manufacturer((String) planeType[1]);
+            plane.coachSeats((Integer) planeType[2]);
+            plane.firstClassSeats((Integer) planeType[3]);
+            planes.add(plane);
+        }
+
+        int flightNumber = 1000;
+        for (LocalDate date = firstDate; !date.isAfter(lastDate); date = date.plusDays(1)) {
+            for (Airport boardingAirport : airports) {
+                for (int i = 0; i < legsPerAirportPerDay; i++) {
+                    Airport disembarkingAirport = airports.get(random.nextInt(airports.size()));
+                    if (disembarkingAirport == boardingAirport) disembarkingAirport = airports.get((airports.indexOf(boardingAirport) + 1) % airports.size());
+                    Plane plane = planes.get(random.nextInt(planes.size()));
+                    ZonedDateTime boardingTime = ZonedDateTime.of(date.atStartOfDay(), gmt).plusMinutes(random.nextInt(24 * 60));
+                    Duration legDuration = Duration.ofMinutes(45 + random.nextInt(360));
+                    BigDecimal coachPrice = BigDecimal.valueOf(5000 + random.nextInt(45000), 2);
+
+                    Leg leg = new Leg();
+                    leg.setFlightNumber(flightNumber++);
+                    leg.setBoardingAirport(boardingAirport);
+                    leg.setDisembarkingAirport(disembarkingAirport);
+                    leg.setBoardingTime(boardingTime);
+                    leg.setDisembarkingTime(boardingTime.plus(legDuration));
+                    leg.setLegDuration(legDuration);
+                    leg.setPlane(plane);
+                    leg.setCoachPrice(coachPrice);
+                    leg.setFirstClassPrice(coachPrice.multiply(BigDecimal.valueOf(3)));
+                    leg.setReservedCoachSeats(random.nextInt(plane.coachSeats() + 1));
+                    leg.setReservedFirstClassSeats(random.nextInt(plane.firstClassSeats() + 1));
+                    legs.add(leg);
+                }
+            }
+        }
+    }
+
+    /**
+     * Get the airports of the network
+     *
+     * @return The airports
+     */
+    public Airports airports() { return airports; }
+
+    /**
+     * Get the planes of the network
+     *
+     * @return The planes
+     */
+    public Planes planes() { return planes; }
+
+    /**
+     * Get every leg of the network
+     *
+     * @return The legs in order of boarding date and boarding airport
+     */
+    public Legs legs() { return legs; }
+
+    /**
+     * Get an airport of the network
+     *
+     * @param code The airport code
+     * @return [possibly null] The airport with the code
+     */
+    public Airport airport(String code) {
+        for (Airport airport : airports)
+            if (airport.code().equals(code)) return airport;
+        return null;
+    }
+
+    /**
+     * Replaces the airports, planes and legs of the LocalFlightDatabase with those of the network. A list of legs is
+     * stored for every airport and every date of the network, even if it is empty, so a search inside the dates of
+     * the network never makes a request to the server.
+     *
+     * @param database The database to load the network into
+     * @post The network is cached in the LocalFlightDatabase
+     */
+    public void loadInto(LocalFlightDatabase database) {
+        database.cacheAirports(airports);
+        database.cachePlanes(planes);
+
+        Map<String, Legs> boardingLegs = new HashMap<>();
+        Map<String, Legs> disembarkingLegs = new HashMap<>();
+        for (Leg leg : legs) {
+            boardingLegs.computeIfAbsent(key(leg.getBoardingAirport(), leg.getBoardingTime().toLocalDate()), k -> new Legs()).add(leg);
+            disembarkingLegs.computeIfAbsent(key(leg.getDisembarkingAirport(), leg.getDisembarkingTime().toLocalDate()), k -> new Legs()).add(leg);
+        }
+
+        // Legs boarding on the last date may disembark on the next date
+        for (LocalDate date = firstDate; !date.isAfter(lastDate.plusDays(1)); date = date.plusDays(1)) {
+            for (Airport airport : airports) {
+                database.cacheBoardingLegs(airport, date, boardingLegs.getOrDefault(key(airport, date), new Legs()));
+                database.cacheDisembarkingLegs(airport, date, disembarkingLegs.getOrDefault(key(airport, date), new Legs()));
+            }
+        }
+    }
+
+    /**
+     * Builds random flights of one to three legs from the legs of the network. The legs of a flight do not need to
+     * connect, since the flights are only used to measure sorting and reservation.
+     *
+     * @param numberOfFlights The number of flights to build
+     * @param seed The seed for choosing the legs
+     * @return The flights
+     */
+    public Flights randomFlights(int numberOfFlights, long seed) {
+        Random random = new Random(seed);
+        Flights flights = new Flights();
+        for (int i = 0; i < numberOfFlights; i++) {
+            Flight flight = new Flight(Saps.SEATING_TYPES.get(random.nextInt(Saps.SEATING_TYPES.size())));
+            List<Leg> flightLegs = new ArrayList<>();
+            int numberOfLegs = 1 + random.nextInt(3);
+            for (int j = 0; j < numberOfLegs; j++)
+                flightLegs.add(legs.get(random.nextInt(legs.size())));
+            flightLegs.sort((a, b) -> a.getBoardingTime().compareTo(b.getBoardingTime()));
+            for (Leg leg : flightLegs)
+                flight.addLegToEnd(leg);
+            flights.add(flight);
+        }
+        return flights;
+    }
+
+    /**
+     * Writes airports in the XML format of the server
+     *
+     * @return The airports as XML
+     */
+    public String airportsXml() {
+        StringBuilder xml = new StringBuilder("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"no\"?><Airports>");
+        for (Airport airport : airports) {
+            xml.append("<Airport Code=\"").append(airport.code()).append("\" Name=\"").append(airport.name()).append("\">")
+                    .append("<Latitude>").append(airport.latitude()).append("</Latitude>")
+                    .append("<Longitude>").append(airport.longitude()).append("</Longitude>")
+                    .append("</Airport>");
+        }
+        return xml.append("</Airports>").toString();
+    }
+
+    /**
+     * Writes legs in the XML format of the server
+     *
+     * @param numberOfLegs The number of legs to write, taken from the start of the network
+     * @return The legs as XML
+     */
+    public String legsXml(int numberOfLegs) {
+        StringBuilder xml = new StringBuilder("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"no\"?><Flights>");
+        for (Leg leg : legs.subList(0, Math.min(numberOfLegs, legs.size()))) {
+            xml.append("<Flight Airplane=\"").append(leg.getPlane().model())
+                    .append("\" FlightTime=\"").append(leg.getLegDuration().toMinutes())
+                    .append("\" Number=\"").append(leg.getFlightNumber()).append("\">")
+                    .append("<Departure><Code>").append(leg.getBoardingAirport().code()).append("</Code>")
+                    .append("<Time>").append(serverDateTimeStyle.format(leg.getBoardingTime())).append("</Time></Departure>")
+                    .append("<Arrival><Code>").append(leg.getDisembarkingAirport().code()).append("</Code>")
+                    .append("<Time>").append(serverDateTimeStyle.format(leg.getDisembarkingTime())).append("</Time></Arrival>")
+                    .append("<Seating><FirstClass Price=\"$").append(leg.getFirstClassPrice()).append("\">")
+                    .append(leg.getReservedFirstClassSeats()).append("</FirstClass>")
+                    .append("<Coach Price=\"$").append(leg.getCoachPrice()).append("\">")
+                    .append(leg.getReservedCoachSeats()).append("</Coach></Seating>")
+                    .append("</Flight>");
+        }
+        return xml.append("</Flights>").toString();
+    }
+
+    /**
+     * Get a key for grouping legs by airport and date
+     *
+     * @param airport The airport
+     * @param date The date
+     * @return The key
+     */
+    private static String key(Airport airport, LocalDate date) {
+        return airport.code() + date;
+    }
+}
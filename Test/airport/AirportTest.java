@@ -2,6 +2,7 @@ package airport;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import utils.IdRegistry;
 
 import java.time.*;
 
@@ -108,4 +109,45 @@ class AirportTest {
         // ANC is GMT - 8
         assert testAirport.convertLocalDateTimetoGMT(testTime1).equals(testTime2);
     }
+
+    @Test
+    void id() {
+        Airport bostonAirport = new Airport();
+        Airport lowerCaseBostonAirport = new Airport();
+        Airport sanFranciscoAirport = new Airport();
+        assert bostonAirport.id() == IdRegistry.NO_ID;
+        bostonAirport.code("BOS");
+        lowerCaseBostonAirport.code("bos");
+        sanFranciscoAirport.code("SFO");
+        assert bostonAirport.id() == lowerCaseBostonAirport.id();
+        assert bostonAirport.id() != sanFranciscoAirport.id();
+        assert bostonAirport.id() >= 0 && sanFranciscoAirport.id() >= 0;
+    }
+
+    @Test
+    void convertEpochSecondsAcrossDaylightSavingTime() {
+        Airport testAirport = new Airport();
+        testAirport.code("BOS");
+        // Every half hour around the spring and fall transitions of 2020, including the skipped and repeated hours
+        LocalDateTime[] starts = {LocalDateTime.of(2020, 3, 7, 0, 0), LocalDateTime.of(2020, 10, 31, 0, 0)};
+        for (LocalDateTime start : starts) {
+            for (LocalDateTime local = start; local.isBefore(start.plusDays(3)); local = local.plusMinutes(30)) {
+                ZonedDateTime gmt = testAirport.convertLocalDateTimetoGMT(local);
+                assert testAirport.convertLocalDateTimetoGMTSecond(local) == gmt.toEpochSecond();
+                assert testAirport.convertGMTtoLocalDateTime(gmt.toEpochSecond())
+                        .equals(testAirport.convertGMTtoLocalTime(gmt).toLocalDateTime());
+            }
+        }
+    }
+
+    @Test
+    void convertEpochSecondsWithUnknownZone() {
+        Airport testAirport = new Airport();
+        testAirport.code("ZZZ");
+        LocalDateTime local = LocalDateTime.of(2020, 5, 12, 8, 30);
+        assert testAirport.zoneId() == null;
+        assert testAirport.gmtOffsetSeconds(0) == 0;
+        assert testAirport.convertLocalDateTimetoGMTSecond(local) == testAirport.convertLocalDateTimetoGMT(local).toEpochSecond();
+        assert testAirport.convertGMTtoLocalDateTime(local.toEpochSecond(ZoneOffset.UTC)).equals(local);
+    }
 }
\ No newline at end of file
@@ -8,6 +8,10 @@ import leg.Legs;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.*;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -47,4 +51,14 @@ class ConvertFlightsToXMLTest {
         String xmlAnswer =ConvertFlightsToXML.buildPostXML(testFlights, 3);
         assert xmlAnswer.equals(xml);
     }
+
+    @Test
+    void writeError() throws XMLStreamException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        XMLStreamWriter writer = ConvertFlightsToXML.startFlights(outputStream);
+        ConvertFlightsToXML.writeError(writer, "Search failed");
+        ConvertFlightsToXML.endFlights(writer);
+        String xmlAnswer = outputStream.toString(StandardCharsets.UTF_8);
+        assert xmlAnswer.contains("<Flights><Error Message=\"Search failed\"></Error></Flights>");
+    }
 }
\ No newline at end of file
@@ -7,6 +7,14 @@ import leg.Legs;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.*;
+import java.util.ArrayList;
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class DaoLegTest {
@@ -58,4 +66,18 @@ class DaoLegTest {
         assert testLegs.contains(testLeg1);
         assert testLegs.size() == 2;
     }
+
+    @Test
+    void addAllStream() {
+        InputStream testStream = new ByteArrayInputStream(xmlIn.getBytes(StandardCharsets.UTF_8));
+        List<Leg> emittedLegs = new ArrayList<>();
+        DaoLeg.addAll(testStream, emittedLegs::add);
+        assert emittedLegs.size() == 2;
+        assert emittedLegs.get(0).getFlightNumber() == 1380;
+        assert emittedLegs.get(0).getBoardingTime().equals(ZonedDateTime.of(LocalDate.of(2019,5,4), LocalTime.of(19,24), ZoneId.ofOffset("GMT", ZoneOffset.ofHours(0))));
+        assert emittedLegs.get(0).getReservedFirstClassSeats() == 65;
+        assert emittedLegs.get(1).getFlightNumber() == 2751;
+        assert emittedLegs.get(1).getReservedCoachSeats() == 22;
+        assert emittedLegs.get(1).getCoachPrice().compareTo(new BigDecimal("74.60")) == 0;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,114 @@
+package dao;
+
+import airport.Airport;
+import airport.Airports;
+import leg.Leg;
+import leg.LegTable;
+import leg.Legs;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import plane.Plane;
+import plane.Planes;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.*;
+import java.util.ArrayList;
+import java.util.List;
+
+class LegCacheFileTest {
+    ZonedDateTime testZDT = ZonedDateTime.of(LocalDate.of(2020,5,12), LocalTime.of(10,0), ZoneId.ofOffset("GMT", ZoneOffset.ofHours(0)));
+    Airport testAirport1 = new Airport();
+    Airport testAirport2 = new Airport();
+    Plane testPlane = new Plane();
+    Path testDirectory;
+    Path testFile;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        testAirport1.code("BOS");
+        testAirport1.name("Logan International");
+        testAirport1.latitude(42.36);
+        testAirport1.longitude(-71.01);
+        testAirport2.code("LAX");
+        testPlane.model("A320");
+        testPlane.manufacturer("Airbus");
+        testPlane.coachSeats(150);
+        testPlane.firstClassSeats(12);
+        testDirectory = Files.createTempDirectory("legcache");
+        testFile = testDirectory.resolve("legs.cache");
+        // Files are deleted in the reverse order they are registered
+        testDirectory.toFile().deleteOnExit();
+        testFile.toFile().deleteOnExit();
+    }
+
+    LegCacheFile testCacheFile() {
+        Leg testLeg = new Leg();
+        testLeg.setFlightNumber(1234);
+        testLeg.setBoardingAirport(testAirport1);
+        testLeg.setDisembarkingAirport(testAirport2);
+        testLeg.setBoardingTime(testZDT);
+        testLeg.setDisembarkingTime(testZDT.plusHours(5));
+        testLeg.setLegDuration(Duration.ofHours(5));
+        testLeg.setPlane(testPlane);
+        testLeg.setCoachPrice(new BigDecimal("123.45"));
+        testLeg.setReservedCoachSeats(20);
+        testLeg.setReservedFirstClassSeats(2);
+        Legs testLegs = new Legs();
+        testLegs.add(testLeg);
+
+        Airports testAirports = new Airports();
+        testAirports.add(testAirport1);
+        Planes testPlanes = new Planes();
+        testPlanes.add(testPlane);
+        List<LegCacheFile.Entry> testEntries = new ArrayList<>();
+        testEntries.add(new LegCacheFile.Entry(true, "BOS", testZDT.toLocalDate(), 1000L, LegTable.byBoardingTime(testLegs)));
+        testEntries.add(new LegCacheFile.Entry(false, "LAX", testZDT.toLocalDate(), 2000L, LegTable.byDisembarkingTime(testLegs)));
+        return new LegCacheFile(testAirports, 3000L, testPlanes, 4000L, testEntries);
+    }
+
+    @Test
+    void writeAndRead() throws IOException {
+        testCacheFile().write(testFile);
+        LegCacheFile readFile = LegCacheFile.read(testFile);
+
+        assert readFile.airports.size() == 1;
+        assert readFile.airports.get(0).equals(testAirport1);
+        assert readFile.airportsFetchedAt == 3000L;
+        assert readFile.planes.size() == 1;
+        assert readFile.planes.get(0).equals(testPlane);
+        assert readFile.planesFetchedAt == 4000L;
+
+        assert readFile.entries.size() == 2;
+        LegCacheFile.Entry boardingEntry = readFile.entries.get(0);
+        assert boardingEntry.isBoarding;
+        assert boardingEntry.airportCode.equals("BOS");
+        assert boardingEntry.date.equals(testZDT.toLocalDate());
+        assert boardingEntry.fetchedAt == 1000L;
+        Leg readLeg = boardingEntry.legs.toLeg(0);
+        assert readLeg.getFlightNumber() == 1234;
+        assert readLeg.getBoardingAirport() == readFile.airports.get(0);
+        assert readLeg.getDisembarkingAirport().code().equals("LAX");
+        assert readLeg.getBoardingTime().equals(testZDT);
+        assert readLeg.getLegDuration().equals(Duration.ofHours(5));
+        assert readLeg.getPlane() == readFile.planes.get(0);
+        assert readLeg.getCoachPrice().compareTo(new BigDecimal("123.45")) == 0;
+        assert readLeg.getFirstClassPrice() == null;
+        assert readLeg.getReservedCoachSeats() == 20;
+        assert !readFile.entries.get(1).isBoarding;
+    }
+
+    @Test
+    void readOtherFile() throws IOException {
+        Files.write(testFile, new byte[] {1, 2, 3, 4, 5, 6, 7, 8});
+        boolean isThrown = false;
+        try {
+            LegCacheFile.read(testFile);
+        } catch (IOException exc) {
+            isThrown = true;
+        }
+        assert isThrown;
+    }
+}
\ No newline at end of file
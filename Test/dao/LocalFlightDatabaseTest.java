@@ -0,0 +1,118 @@
+package dao;
+
+import airport.Airport;
+import airport.Airports;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import leg.LegTable;
+import leg.Legs;
+import plane.Plane;
+import plane.Planes;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class LocalFlightDatabaseTest {
+    Airport testAirport1 = new Airport();
+    Airport testAirport2 = new Airport();
+    Plane testPlane = new Plane();
+
+    @BeforeEach
+    void setUp() {
+        testAirport1.code("BOS");
+        testAirport1.name("Logan International");
+        testAirport2.code("LAX");
+        testAirport2.name("Los Angeles International");
+        Airports testAirports = new Airports();
+        testAirports.add(testAirport1);
+        testAirports.add(testAirport2);
+        LocalFlightDatabase.getInstance().cacheAirports(testAirports);
+
+        testPlane.model("A320");
+        testPlane.manufacturer("Airbus");
+        Planes testPlanes = new Planes();
+        testPlanes.add(testPlane);
+        LocalFlightDatabase.getInstance().cachePlanes(testPlanes);
+    }
+
+    @Test
+    void getAirportFromString() {
+        assert LocalFlightDatabase.getInstance().getAirportFromString("LAX") == testAirport2;
+        assert LocalFlightDatabase.getInstance().getAirportFromString("bos") == testAirport1;
+        assert LocalFlightDatabase.getInstance().getAirportFromString("los angeles INTERNATIONAL") == testAirport2;
+        assert LocalFlightDatabase.getInstance().getAirportFromString("JFK") == null;
+    }
+
+    @Test
+    void getAirportFromStringAfterReplace() {
+        Airport testAirport3 = new Airport();
+        testAirport3.code("BOS");
+        testAirport3.name("Boston");
+        Airports testAirports = new Airports();
+        testAirports.add(testAirport3);
+        LocalFlightDatabase.getInstance().cacheAirports(testAirports);
+        assert LocalFlightDatabase.getInstance().getAirportFromString("BOS") == testAirport3;
+        assert LocalFlightDatabase.getInstance().getAirportFromString("LAX") == null;
+    }
+
+    @Test
+    void getPlaneFromModel() {
+        assert LocalFlightDatabase.getInstance().getPlaneFromModel("a320") == testPlane;
+        assert LocalFlightDatabase.getInstance().getPlaneFromModel("747") == null;
+    }
+
+    @Test
+    void legsRequestIgnoresDefaultLocale() {
+        Locale defaultLocale = Locale.getDefault();
+        try {
+            // Upper casing in Turkish turns i into a dotted capital I
+            Locale.setDefault(new Locale("tr", "TR"));
+            LocalDate testDate = LocalDate.of(2020, 5, 12);
+            assert new LocalFlightDatabase.LegsRequest("mia", testDate).equals(new LocalFlightDatabase.LegsRequest("MIA", testDate));
+        } finally {
+            Locale.setDefault(defaultLocale);
+        }
+    }
+
+    @Test
+    void requestLegsAgainAfterFailure() {
+        Map<LocalFlightDatabase.LegsRequest, CompletableFuture<LegTable>> legLists = new ConcurrentHashMap<>();
+        Map<LocalFlightDatabase.LegsRequest, Long> fetchTimes = new HashMap<>();
+        LocalFlightDatabase.LegsRequest request = new LocalFlightDatabase.LegsRequest("BOS", LocalDate.of(2020, 5, 12));
+        AtomicInteger fetches = new AtomicInteger();
+
+        // A failed request is not stored, so it is not mistaken for a day without legs
+        CompletableFuture<LegTable> failedLegs = LocalFlightDatabase.requestLegs(legLists, fetchTimes, request, false, () -> {
+            fetches.incrementAndGet();
+            return CompletableFuture.failedFuture(new UncheckedIOException(new IOException("Server returned HTTP 503")));
+        });
+        assert failedLegs.isCompletedExceptionally();
+        assert legLists.isEmpty();
+        assert fetchTimes.isEmpty();
+
+        // The next request is sent to the server again and its legs are stored
+        LegTable legs = LegTable.byBoardingTime(new Legs());
+        CompletableFuture<LegTable> retriedLegs = LocalFlightDatabase.requestLegs(legLists, fetchTimes, request, false, () -> {
+            fetches.incrementAndGet();
+            return CompletableFuture.completedFuture(legs);
+        });
+        assert retriedLegs.join() == legs;
+        assert legLists.get(request).join() == legs;
+        assert fetchTimes.containsKey(request);
+        assert fetches.get() == 2;
+
+        // Once stored, the legs are not requested again
+        LocalFlightDatabase.requestLegs(legLists, fetchTimes, request, false, () -> {
+            fetches.incrementAndGet();
+            return CompletableFuture.failedFuture(new IllegalStateException());
+        });
+        assert fetches.get() == 2;
+    }
+}
\ No newline at end of file
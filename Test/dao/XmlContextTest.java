@@ -0,0 +1,34 @@
+package dao;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class XmlContextTest {
+
+    @Test
+    void parseCents() {
+        assert XmlContext.parseCents("$1,234.56") == 123456;
+        assert XmlContext.parseCents("$74.60") == 7460;
+        assert XmlContext.parseCents("$74.6") == 7460;
+        assert XmlContext.parseCents("$200") == 20000;
+        assert XmlContext.parseCents("15.00") == 1500;
+        assert XmlContext.parseCents("$0.995") == 100;
+        assert XmlContext.parseCents("$0.994") == 99;
+    }
+
+    @Test
+    void parseCentsRejectsMalformedPrices() {
+        assertThrows(NumberFormatException.class, () -> XmlContext.parseCents(""));
+        assertThrows(NumberFormatException.class, () -> XmlContext.parseCents("$"));
+        assertThrows(NumberFormatException.class, () -> XmlContext.parseCents("$,100.00"));
+        assertThrows(NumberFormatException.class, () -> XmlContext.parseCents("$12.3a"));
+        assertThrows(NumberFormatException.class, () -> XmlContext.parseCents("-$5.00"));
+    }
+
+    @Test
+    void documentBuilderIsReusedByThread() {
+        assert XmlContext.documentBuilder() == XmlContext.documentBuilder();
+        assert XmlContext.transformer() == XmlContext.transformer();
+    }
+}
\ No newline at end of file
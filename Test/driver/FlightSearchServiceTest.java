@@ -0,0 +1,136 @@
+package driver;
+
+import airport.Airport;
+import dao.LocalFlightDatabase;
+import flight.Flight;
+import flight.FlightManager;
+import flight.Flights;
+import leg.Legs;
+import leg.TestLegs;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ui.UIModel;
+
+import java.time.*;
+import java.util.ArrayList;
+import java.util.List;
+
+class FlightSearchServiceTest {
+    Airport testAirport1 = new Airport();
+    Airport testAirport2 = new Airport();
+    Airport testAirport3 = new Airport();
+    LocalDate testDate = LocalDate.of(2020,5,22);
+    UIModel testFilter = new UIModel();
+
+    @BeforeEach
+    void setUp() {
+        // Codes without a time zone are treated as GMT, so the search only needs the legs of one date
+        testAirport1.code("QQA");
+        testAirport2.code("QQB");
+        testAirport3.code("QQC");
+
+        ZonedDateTime boardingTime = ZonedDateTime.of(testDate, LocalTime.of(8,0), ZoneId.ofOffset("GMT", ZoneOffset.ofHours(0)));
+        Legs testLegs = new Legs();
+        testLegs.add(TestLegs.leg(1234, testAirport1, testAirport2, boardingTime, Duration.ofHours(2), "100.00"));
+        testLegs.add(TestLegs.leg(2345, testAirport1, testAirport3, boardingTime, Duration.ofHours(2), "100.00"));
+        LocalFlightDatabase.getInstance().cacheBoardingLegs(testAirport1, testDate, testLegs);
+
+        // The connection from QQC boards at QQC, or is joined from the legs disembarking at QQB in bidirectional mode
+        Legs testConnectingLegs = new Legs();
+        testConnectingLegs.add(TestLegs.leg(3456, testAirport3, testAirport2, boardingTime.plusHours(3), Duration.ofHours(2), "100.00"));
+        LocalFlightDatabase.getInstance().cacheBoardingLegs(testAirport3, testDate, testConnectingLegs);
+        Legs testArrivingLegs = new Legs();
+        testArrivingLegs.add(testLegs.get(0));
+        testArrivingLegs.add(testConnectingLegs.get(0));
+        LocalFlightDatabase.getInstance().cacheDisembarkingLegs(testAirport2, testDate, testArrivingLegs);
+        LocalFlightDatabase.getInstance().cacheDisembarkingLegs(testAirport2, testDate.plusDays(1), new Legs());
+
+        testFilter.departureAirport(testAirport1);
+        testFilter.arrivalAirport(testAirport2);
+        testFilter.flightLocalDate(testDate);
+        testFilter.numberOfLayovers(1);
+    }
+
+    @Test
+    void search() {
+        Flights flights = FlightSearchService.INSTANCE.search(testFilter);
+        assert flights.size() == 2;
+        assert flights.get(0).legList().get(0).getFlightNumber() == 1234;
+        assert flights.get(1).legList().get(0).getFlightNumber() == 2345;
+        assert flights.get(1).legList().get(1).getFlightNumber() == 3456;
+    }
+
+    @Test
+    void searchBidirectional() {
+        SearchOptions options = new SearchOptions();
+        options.bidirectional(true);
+        Flights flights = FlightSearchService.INSTANCE.search(testFilter, options);
+        assert flights.size() == 2;
+        assert flights.get(1).legList().get(1).getFlightNumber() == 3456;
+    }
+
+    @Test
+    void searchSequential() {
+        SearchOptions options = new SearchOptions();
+        options.parallel(false);
+        Flights flights = FlightSearchService.INSTANCE.search(testFilter, options);
+        assert flights.size() == 2;
+        assert flights.get(1).legList().get(1).getFlightNumber() == 3456;
+    }
+
+    @Test
+    void searchCopiesFilter() {
+        Flights flights = FlightSearchService.INSTANCE.search(testFilter);
+        testFilter.flightLocalDate(testDate.plusDays(1));
+        assert flights.get(0).getDepartureTime().toLocalDate().equals(testDate);
+        assert testFilter.flightLocalDate().equals(testDate.plusDays(1));
+    }
+
+    @Test
+    void searchCheapest() {
+        SearchOptions options = new SearchOptions();
+        options.cheapestFlights(1);
+        Flights flights = FlightSearchService.INSTANCE.search(testFilter, options);
+        assert flights.size() == 1;
+        assert flights.get(0).legList().size() == 1;
+    }
+
+    @Test
+    void searchNotTruncated() {
+        SearchOptions options = new SearchOptions();
+        options.timeLimit(Duration.ofMinutes(1));
+        FlightManager search = FlightSearchService.INSTANCE.runSearch(testFilter, options);
+        assert !search.isTruncated();
+        assert search.validFlights().size() == 2;
+    }
+
+    @Test
+    void searchCancelled() {
+        FlightManager search = FlightSearchService.INSTANCE.newSearch(testFilter, new SearchOptions());
+        search.cancel();
+        search.completeQueue();
+        assert search.isTruncated();
+        assert search.validFlights().size() == 0;
+    }
+
+    @Test
+    void searchWithListener() {
+        List<Flight> foundFlights = new ArrayList<>();
+        FlightManager search = FlightSearchService.INSTANCE.newSearch(testFilter, new SearchOptions());
+        search.flightListener(foundFlights::add);
+        search.completeQueue();
+        assert foundFlights.size() == 2;
+        assert foundFlights.equals(search.validFlights());
+    }
+
+    @Test
+    void searchWithoutAirports() {
+        boolean isThrown = false;
+        try {
+            FlightSearchService.INSTANCE.search(new UIModel());
+        } catch (IllegalArgumentException exc) {
+            isThrown = true;
+        }
+        assert isThrown;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,105 @@
+package flight;
+
+import airport.Airport;
+import dao.LocalFlightDatabase;
+import leg.Leg;
+import leg.Legs;
+import leg.TestLegs;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ui.UIModel;
+
+import java.time.*;
+import java.util.ArrayList;
+import java.util.List;
+
+class FlightManagerTest {
+    Airport[] testAirports = new Airport[5];
+    LocalDate testDate = LocalDate.of(2020,5,23);
+    UIModel testFilter = new UIModel();
+
+    @BeforeEach
+    void setUp() {
+        // Codes without a time zone are treated as GMT
+        for (int i = 0; i < testAirports.length; i++) {
+            testAirports[i] = new Airport();
+            testAirports[i].code("QR" + (char) ('A' + i));
+        }
+
+        // Every airport has legs to every later airport, so there are many flights with up to two layovers
+        List<Leg> testLegs = new ArrayList<>();
+        for (int from = 0; from < testAirports.length; from++) {
+            for (int to = from + 1; to < testAirports.length; to++) {
+                for (int hour = 2 + 3 * from; hour < 4 + 3 * from; hour++) {
+                    int flightNumber = 1000 + testLegs.size();
+                    ZonedDateTime boardingTime = ZonedDateTime.of(testDate, LocalTime.of(hour, 10 * to), ZoneId.ofOffset("GMT", ZoneOffset.ofHours(0)));
+                    testLegs.add(TestLegs.leg(flightNumber, testAirports[from], testAirports[to], boardingTime,
+                            Duration.ofHours(1), Integer.toString(100 + flightNumber % 7)));
+                }
+            }
+        }
+
+        // Store the legs of every airport and of the days around the search, so nothing is requested from the server
+        for (Airport airport : testAirports) {
+            for (LocalDate date = testDate.minusDays(1); !date.isAfter(testDate.plusDays(1)); date = date.plusDays(1)) {
+                Legs boardingLegs = new Legs();
+                Legs disembarkingLegs = new Legs();
+                for (Leg leg : testLegs) {
+                    if (leg.getBoardingAirport() == airport && leg.getBoardingTime().toLocalDate().equals(date))
+                        boardingLegs.add(leg);
+                    if (leg.getDisembarkingAirport() == airport && leg.getDisembarkingTime().toLocalDate().equals(date))
+                        disembarkingLegs.add(leg);
+                }
+                LocalFlightDatabase.getInstance().cacheBoardingLegs(airport, date, boardingLegs);
+                LocalFlightDatabase.getInstance().cacheDisembarkingLegs(airport, date, disembarkingLegs);
+            }
+        }
+
+        testFilter.departureAirport(testAirports[0]);
+        testFilter.arrivalAirport(testAirports[4]);
+        testFilter.flightLocalDate(testDate);
+        testFilter.numberOfLayovers(2);
+    }
+
+    List<String> search(boolean isParallel, boolean isBidirectional, boolean isPruned) {
+        FlightManager search = new FlightManager(testFilter);
+        search.parallelSearch(isParallel);
+        search.bidirectionalSearch(isBidirectional);
+        search.pruneUnreachable(isPruned);
+        search.enqueueFlight(new Flight(testFilter.seatingType()));
+        search.completeQueue();
+
+        List<String> flightNumbers = new ArrayList<>();
+        for (Flight flight : search.validFlights()) {
+            StringBuilder numbers = new StringBuilder();
+            for (Leg leg : flight.legList())
+                numbers.append(leg.getFlightNumber()).append(' ');
+            flightNumbers.add(numbers.toString());
+        }
+        return flightNumbers;
+    }
+
+    @Test
+    void parallelMatchesSequential() {
+        List<String> sequentialFlights = search(false, false, false);
+        assert sequentialFlights.size() > 10;
+        assert search(true, false, false).equals(sequentialFlights);
+    }
+
+    @Test
+    void parallelMatchesSequentialBidirectional() {
+        List<String> sequentialFlights = search(false, true, true);
+        assert sequentialFlights.size() > 10;
+        assert search(true, true, true).equals(sequentialFlights);
+        assert sequentialFlights.equals(search(false, false, false));
+        assert search(false, true, false).equals(sequentialFlights);
+    }
+
+    @Test
+    void prunedMatchesUnpruned() {
+        List<String> unprunedFlights = search(false, false, false);
+        assert unprunedFlights.size() > 10;
+        assert search(false, false, true).equals(unprunedFlights);
+        assert search(true, false, true).equals(unprunedFlights);
+    }
+}
\ No newline at end of file
@@ -2,6 +2,7 @@ package flight;
 
 import airport.Airport;
 import leg.Leg;
+import leg.LegTable;
 import leg.Legs;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -95,6 +96,23 @@ class FlightTest {
         assert testFlight.getTotalPrice().equals(BigDecimal.valueOf(172.58));
     }
 
+    @Test
+    void getTotalCents() {
+        testLeg1.setCoachPrice(BigDecimal.valueOf(22.55));
+        testLeg2.setCoachPrice(BigDecimal.valueOf(150.03));
+        testLeg1.setFirstClassPrice(BigDecimal.valueOf(100));
+        assert testFlight.getTotalCents() == 17258;
+        // A leg without a first class price has no first class total
+        testFlight.setSeatingType("First Class");
+        assert testFlight.getTotalCents() == LegTable.NO_PRICE;
+        assert testFlight.getTotalPrice() == null;
+        testFlight.setSeatingType("Coach");
+        // Adding a leg sums the totals again
+        testLeg3.setCoachPrice(BigDecimal.valueOf(10));
+        testFlight.addLegToEnd(testLeg3);
+        assert testFlight.getTotalCents() == 18258;
+    }
+
     @Test
     void getNumberOfLayovers() {
         assert testFlight.getNumberOfLayovers() == 1;
@@ -0,0 +1,94 @@
+package flight;
+
+import airport.Airport;
+import leg.Leg;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.*;
+
+class FlightsTest {
+    Airport testAirport1 = new Airport();
+    Airport testAirport2 = new Airport();
+    ZonedDateTime testZDT = ZonedDateTime.of(LocalDate.of(2020,5,22), LocalTime.of(8,0), ZoneId.ofOffset("GMT", ZoneOffset.ofHours(0)));
+    Flight cheapLong;
+    Flight cheapShort;
+    Flight expensiveEarly;
+    Flights testFlights;
+
+    @BeforeEach
+    void setUp() {
+        testAirport1.code("BOS");
+        testAirport2.code("LAX");
+        cheapLong = testFlight("100.00", 2, 300);
+        cheapShort = testFlight("100.00", 3, 120);
+        expensiveEarly = testFlight("250.50", 0, 200);
+        testFlights = new Flights();
+        testFlights.add(cheapLong);
+        testFlights.add(expensiveEarly);
+        testFlights.add(cheapShort);
+    }
+
+    Flight testFlight(String coachPrice, int hoursAfter, int minutes) {
+        Leg leg = new Leg();
+        leg.setBoardingAirport(testAirport1);
+        leg.setDisembarkingAirport(testAirport2);
+        leg.setBoardingTime(testZDT.plusHours(hoursAfter));
+        leg.setDisembarkingTime(testZDT.plusHours(hoursAfter).plusMinutes(minutes));
+        leg.setLegDuration(Duration.ofMinutes(minutes));
+        leg.setCoachPrice(new BigDecimal(coachPrice));
+        leg.setFirstClassPrice(new BigDecimal(coachPrice));
+        Flight flight = new Flight("Coach");
+        flight.addLegToEnd(leg);
+        return flight;
+    }
+
+    @Test
+    void sortByPriceIsStable() {
+        testFlights.sortByPrice(true);
+        assert testFlights.get(0) == cheapLong;
+        assert testFlights.get(1) == cheapShort;
+        assert testFlights.get(2) == expensiveEarly;
+    }
+
+    @Test
+    void sortByPriceDescending() {
+        testFlights.sortByPrice(false);
+        assert testFlights.get(0) == expensiveEarly;
+        assert testFlights.get(1) == cheapLong;
+        assert testFlights.get(2) == cheapShort;
+    }
+
+    @Test
+    void sortByPriceThenDuration() {
+        testFlights.sortBy(true, Flights.SortKey.PRICE, Flights.SortKey.TRAVEL_DURATION);
+        assert testFlights.get(0) == cheapShort;
+        assert testFlights.get(1) == cheapLong;
+        assert testFlights.get(2) == expensiveEarly;
+    }
+
+    @Test
+    void sortByTravelDuration() {
+        testFlights.sortByTravelDuration(true);
+        assert testFlights.get(0) == cheapShort;
+        assert testFlights.get(1) == expensiveEarly;
+        assert testFlights.get(2) == cheapLong;
+    }
+
+    @Test
+    void sortByDepartureTime() {
+        testFlights.sortByDepatureTime(true);
+        assert testFlights.get(0) == expensiveEarly;
+        assert testFlights.get(1) == cheapLong;
+        assert testFlights.get(2) == cheapShort;
+    }
+
+    @Test
+    void sortByArrivalTime() {
+        testFlights.sortByArrivalTime(false);
+        assert testFlights.get(0) == cheapLong;
+        assert testFlights.get(1) == cheapShort;
+        assert testFlights.get(2) == expensiveEarly;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,65 @@
+package flight;
+
+import airport.Airport;
+import leg.LegTable;
+import leg.Legs;
+import leg.TestLegs;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.*;
+
+class ParetoFrontTest {
+    Airport testAirport1 = new Airport();
+    Airport testAirport2 = new Airport();
+    Airport testAirport3 = new Airport();
+    ZonedDateTime testZDT1 = ZonedDateTime.of(LocalDate.of(2020,5,22), LocalTime.of(8,0), ZoneId.ofOffset("GMT", ZoneOffset.ofHours(0)));
+    LegTable testLegTable;
+    PartialFlight emptyFlight;
+
+    @BeforeEach
+    void setUp() {
+        testAirport1.code("SEA");
+        testAirport2.code("PHX");
+        testAirport3.code("BOS");
+        Legs testLegs = new Legs();
+        // Rows are in order of boarding time
+        testLegs.add(TestLegs.leg(1, testAirport1, testAirport3, testZDT1, Duration.ofHours(5), "300.00"));
+        testLegs.add(TestLegs.leg(2, testAirport1, testAirport3, testZDT1.plusMinutes(1), Duration.ofHours(6), "200.00"));
+        testLegs.add(TestLegs.leg(3, testAirport1, testAirport3, testZDT1.plusMinutes(2), Duration.ofHours(7), "400.00"));
+        testLegs.add(TestLegs.leg(4, testAirport1, testAirport2, testZDT1.plusMinutes(3), Duration.ofHours(2), "350.00"));
+        testLegTable = LegTable.byBoardingTime(testLegs);
+        emptyFlight = PartialFlight.of(new Flight("Coach"), true);
+    }
+
+    @Test
+    void add() {
+        ParetoFront front = new ParetoFront();
+        assert front.add(emptyFlight.extend(testLegTable, 0), "complete");
+        assert front.add(emptyFlight.extend(testLegTable, 1), "complete");
+        // More expensive and longer than both flights on the front
+        assert !front.add(emptyFlight.extend(testLegTable, 2), "complete");
+        assert front.flights().size() == 2;
+        assert front.flights().get(0).legList().get(0).getFlightNumber() == 1;
+    }
+
+    @Test
+    void addRemovesDominated() {
+        ParetoFront front = new ParetoFront();
+        assert front.add(emptyFlight.extend(testLegTable, 2), "complete");
+        assert front.add(emptyFlight.extend(testLegTable, 0), "complete");
+        assert front.flights().size() == 1;
+        assert front.flights().get(0).legList().get(0).getFlightNumber() == 1;
+    }
+
+    @Test
+    void isDominated() {
+        ParetoFront front = new ParetoFront();
+        front.add(emptyFlight.extend(testLegTable, 0), "complete");
+        PartialFlight partialFlight = emptyFlight.extend(testLegTable, 3);
+        // Shorter than the flight on the front, even with the layover it gains when extended
+        assert !front.isDominated(partialFlight, true);
+        assert !front.isDominated(partialFlight, false);
+        assert front.isDominated(emptyFlight.extend(testLegTable, 2), true);
+    }
+}
\ No newline at end of file
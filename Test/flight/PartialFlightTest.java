@@ -0,0 +1,104 @@
+package flight;
+
+import airport.Airport;
+import leg.Leg;
+import leg.LegTable;
+import leg.Legs;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.*;
+
+class PartialFlightTest {
+    Leg testLeg1;
+    Leg testLeg2;
+    LegTable testLegTable;
+    Airport testAirport1 = new Airport();
+    Airport testAirport2 = new Airport();
+    Airport testAirport3 = new Airport();
+    ZonedDateTime testZDT1 = ZonedDateTime.of(LocalDate.of(2020,5,22), LocalTime.of(8,0), ZoneId.ofOffset("GMT", ZoneOffset.ofHours(0)));
+    ZonedDateTime testZDT2 = testZDT1.plusHours(3);
+    ZonedDateTime testZDT3 = testZDT1.plusHours(4);
+    ZonedDateTime testZDT4 = testZDT1.plusHours(6);
+
+    @BeforeEach
+    void setUp() {
+        testAirport1.code("SEA");
+        testAirport2.code("PHX");
+        testAirport3.code("BOS");
+        testLeg1 = new Leg();
+        testLeg1.setFlightNumber(90);
+        testLeg1.setBoardingAirport(testAirport1);
+        testLeg1.setDisembarkingAirport(testAirport2);
+        testLeg1.setBoardingTime(testZDT1);
+        testLeg1.setDisembarkingTime(testZDT2);
+        testLeg2 = new Leg();
+        testLeg2.setFlightNumber(61);
+        testLeg2.setBoardingAirport(testAirport2);
+        testLeg2.setDisembarkingAirport(testAirport3);
+        testLeg2.setBoardingTime(testZDT3);
+        testLeg2.setDisembarkingTime(testZDT4);
+        testLeg1.setCoachPrice(new BigDecimal("100.25"));
+        testLeg2.setCoachPrice(new BigDecimal("50.50"));
+        Legs testLegs = new Legs();
+        testLegs.add(testLeg2);
+        testLegs.add(testLeg1);
+        testLegTable = LegTable.byBoardingTime(testLegs);
+    }
+
+    @Test
+    void extendToEnd() {
+        PartialFlight emptyFlight = PartialFlight.of(new Flight("Coach"), true);
+        PartialFlight testFlight = emptyFlight.extend(testLegTable, 0).extend(testLegTable, 1);
+        assert emptyFlight.getDepartureAirport() == null;
+        assert testFlight.getDepartureAirport() == testAirport1;
+        assert testFlight.getArrivalAirport() == testAirport3;
+        assert testFlight.getDepartureTime().equals(testZDT1);
+        assert testFlight.getArrivalTime().equals(testZDT4);
+        assert testFlight.getNumberOfLayovers() == 1;
+        assert testFlight.getTotalCents() == 15075;
+
+        Flight completeFlight = testFlight.toFlight("complete");
+        assert completeFlight.legList().get(0).equals(testLeg1);
+        assert completeFlight.legList().get(1).equals(testLeg2);
+        assert completeFlight.getFilterReason().equals("complete");
+    }
+
+    @Test
+    void extendToBeginning() {
+        PartialFlight testFlight = PartialFlight.of(new Flight("First Class"), false).extend(testLegTable, 1).extend(testLegTable, 0);
+        assert testFlight.getDepartureAirport() == testAirport1;
+        assert testFlight.getArrivalAirport() == testAirport3;
+        assert testFlight.getSeatingType().equals("First Class");
+        assert testFlight.getTotalCents() == LegTable.NO_PRICE;
+
+        Flight completeFlight = testFlight.toFlight("seating");
+        assert completeFlight.legList().get(0).equals(testLeg1);
+        assert completeFlight.legList().get(1).equals(testLeg2);
+        assert completeFlight.getSeatingType().equals("First Class");
+    }
+
+    @Test
+    void extendSharesParent() {
+        PartialFlight parentFlight = PartialFlight.of(new Flight(), true).extend(testLegTable, 0);
+        PartialFlight childFlight = parentFlight.extend(testLegTable, 1);
+        assert parentFlight.getNumberOfLayovers() == 0;
+        assert parentFlight.getArrivalAirport() == testAirport2;
+        assert childFlight.getArrivalAirport() == testAirport3;
+    }
+
+    @Test
+    void ofFlight() {
+        Flight testFlight = new Flight();
+        testFlight.addLegToEnd(testLeg1);
+        testFlight.addLegToEnd(testLeg2);
+        PartialFlight fromEnd = PartialFlight.of(testFlight, true);
+        PartialFlight fromBeginning = PartialFlight.of(testFlight, false);
+        assert fromEnd.getDepartureAirportId() == LegTable.airportId(testAirport1);
+        assert fromEnd.getArrivalAirportId() == LegTable.airportId(testAirport3);
+        assert fromBeginning.getDepartureAirportId() == LegTable.airportId(testAirport1);
+        assert fromBeginning.getArrivalAirportId() == LegTable.airportId(testAirport3);
+        assert fromBeginning.toFlight("").legList().get(1).equals(testLeg2);
+    }
+}
\ No newline at end of file
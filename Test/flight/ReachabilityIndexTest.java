@@ -0,0 +1,60 @@
+package flight;
+
+import airport.Airport;
+import leg.LegTable;
+import leg.Legs;
+import leg.TestLegs;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.*;
+import java.util.Collections;
+import java.util.List;
+
+class ReachabilityIndexTest {
+    Airport testAirport1 = new Airport();
+    Airport testAirport2 = new Airport();
+    Airport testAirport3 = new Airport();
+    ZonedDateTime testZDT1 = ZonedDateTime.of(LocalDate.of(2020,5,22), LocalTime.of(8,0), ZoneId.ofOffset("GMT", ZoneOffset.ofHours(0)));
+    LegTable testLegTable;
+
+    @BeforeEach
+    void setUp() {
+        testAirport1.code("SEA");
+        testAirport2.code("PHX");
+        testAirport3.code("BOS");
+        Legs testLegs = new Legs();
+        testLegs.add(TestLegs.leg(61, testAirport2, testAirport3, testZDT1.plusHours(2), Duration.ofHours(5), null));
+        testLegs.add(TestLegs.leg(90, testAirport1, testAirport3, testZDT1, Duration.ofHours(5), null));
+        testLegs.add(TestLegs.leg(75, testAirport2, testAirport3, testZDT1, Duration.ofHours(5), null));
+        testLegTable = LegTable.byDisembarkingTime(testLegs);
+    }
+
+    @Test
+    void connectionsBetween() {
+        ReachabilityIndex index = new ReachabilityIndex(Collections.singletonList(testLegTable), true);
+        int startMinute = LegTable.floorMinute(testZDT1);
+        List<ReachabilityIndex.Connection> connections = index.connectionsBetween(LegTable.airportId(testAirport2), startMinute, startMinute + 120);
+        assert connections.size() == 2;
+        assert testLegTable.flightNumber(connections.get(0).row) == 75;
+        assert testLegTable.flightNumber(connections.get(1).row) == 61;
+        assert index.connectionsBetween(LegTable.airportId(testAirport2), startMinute + 1, startMinute + 119).isEmpty();
+    }
+
+    @Test
+    void isReachable() {
+        ReachabilityIndex index = new ReachabilityIndex(Collections.singletonList(testLegTable), true);
+        int startMinute = LegTable.floorMinute(testZDT1);
+        assert index.isReachable(LegTable.airportId(testAirport1), startMinute, startMinute);
+        assert !index.isReachable(LegTable.airportId(testAirport1), startMinute + 1, startMinute + 60);
+        assert !index.isReachable(LegTable.airportId(testAirport3), startMinute, startMinute + 600);
+    }
+
+    @Test
+    void isReachableByDisembarkingTime() {
+        ReachabilityIndex index = new ReachabilityIndex(Collections.singletonList(testLegTable), false);
+        int startMinute = LegTable.floorMinute(testZDT1.plusHours(5));
+        assert index.isReachable(LegTable.airportId(testAirport3), startMinute, startMinute + 120);
+        assert !index.isReachable(LegTable.airportId(testAirport2), startMinute, startMinute + 120);
+    }
+}
\ No newline at end of file
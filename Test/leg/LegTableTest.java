@@ -0,0 +1,87 @@
+package leg;
+
+import airport.Airport;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.*;
+
+class LegTableTest {
+    ZonedDateTime testZDT = ZonedDateTime.of(LocalDate.of(2020,5,12), LocalTime.of(10,0), ZoneId.ofOffset("GMT", ZoneOffset.ofHours(0)));
+    Airport testAirport1 = new Airport();
+    Airport testAirport2 = new Airport();
+    LegTable testLegTable;
+
+    @BeforeEach
+    void setUp() {
+        testAirport1.code("BOS");
+        testAirport2.code("LAX");
+        Legs testLegs = new Legs();
+        // Legs board every 30 minutes from 10:00, added out of order
+        for (int i : new int[] {3, 0, 4, 1, 2}) {
+            Leg testLeg = new Leg();
+            testLeg.setFlightNumber(100 + i);
+            testLeg.setBoardingAirport(testAirport1);
+            testLeg.setDisembarkingAirport(testAirport2);
+            testLeg.setBoardingTime(testZDT.plusMinutes(30 * i));
+            testLeg.setDisembarkingTime(testZDT.plusMinutes(30 * i + 300));
+            testLeg.setCoachPrice(new BigDecimal("123.45"));
+            testLegs.add(testLeg);
+        }
+        testLegTable = LegTable.byBoardingTime(testLegs);
+    }
+
+    @Test
+    void toLegs() {
+        Legs allLegs = testLegTable.toLegs();
+        assert allLegs.size() == 5;
+        for (int i = 0; i < allLegs.size(); i++)
+            assert allLegs.get(i).getFlightNumber() == 100 + i;
+    }
+
+    @Test
+    void toLeg() {
+        Leg testLeg = testLegTable.toLeg(1);
+        assert testLeg.getBoardingAirport() == testAirport1;
+        assert testLeg.getDisembarkingAirport() == testAirport2;
+        assert testLeg.getBoardingTime().equals(testZDT.plusMinutes(30));
+        assert testLeg.getDisembarkingTime().equals(testZDT.plusMinutes(330));
+        assert testLeg.getCoachPrice().compareTo(new BigDecimal("123.45")) == 0;
+        assert testLeg.getFirstClassPrice() == null;
+    }
+
+    @Test
+    void columns() {
+        assert testLegTable.coachCents(0) == 12345;
+        assert testLegTable.firstClassCents(0) == LegTable.NO_PRICE;
+        assert testLegTable.boardingAirportId(0) == LegTable.airportId(testAirport1);
+        assert testLegTable.disembarkingAirportId(0) != testLegTable.boardingAirportId(0);
+        assert testLegTable.boardingMinute(2) == LegTable.floorMinute(testZDT.plusMinutes(60));
+    }
+
+    @Test
+    void byDisembarkingTime() {
+        Legs testLegs = testLegTable.toLegs();
+        testLegs.get(0).setDisembarkingTime(testZDT.plusDays(1));
+        LegTable disembarkingTable = LegTable.byDisembarkingTime(testLegs);
+        assert disembarkingTable.flightNumber(0) == 101;
+        assert disembarkingTable.flightNumber(4) == 100;
+    }
+
+    @Test
+    void rowsBetweenInclusive() {
+        assert testLegTable.firstRowAtOrAfter(LegTable.floorMinute(testZDT.plusMinutes(30))) == 1;
+        assert testLegTable.firstRowAfter(LegTable.floorMinute(testZDT.plusMinutes(90))) == 4;
+        assert testLegTable.flightNumber(1) == 101;
+        assert testLegTable.flightNumber(3) == 103;
+    }
+
+    @Test
+    void rowsBetweenEmpty() {
+        assert testLegTable.firstRowAtOrAfter(LegTable.floorMinute(testZDT.plusHours(5))) == 5;
+        assert testLegTable.firstRowAfter(LegTable.floorMinute(testZDT.plusHours(6))) == 5;
+        assert testLegTable.firstRowAtOrAfter(LegTable.floorMinute(testZDT.minusHours(6))) == 0;
+        assert testLegTable.firstRowAfter(LegTable.floorMinute(testZDT.minusHours(5))) == 0;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,34 @@
+package leg;
+
+import airport.Airport;
+import utils.Money;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+
+/**
+ * Builds the legs used as fixtures by the tests of the search.
+ */
+public final class TestLegs {
+    private TestLegs() {
+    }
+
+    /**
+     * Builds a leg without a plane, which has every seat free, and without a first class price
+     *
+     * @param flightNumber The flight number
+     * @param boardingAirport The boarding airport
+     * @param disembarkingAirport The disembarking airport
+     * @param boardingTime The boarding time
+     * @param legDuration The time from boarding to disembarking
+     * @param coachPrice [possibly null] The coach price in dollars, such as 100.00
+     * @return The leg
+     */
+    public static Leg leg(int flightNumber, Airport boardingAirport, Airport disembarkingAirport,
+                          ZonedDateTime boardingTime, Duration legDuration, String coachPrice) {
+        long coachCents = coachPrice == null ? LegTable.NO_PRICE : Money.toCents(new BigDecimal(coachPrice));
+        return new Leg(disembarkingAirport, boardingAirport, boardingTime.plus(legDuration), boardingTime, flightNumber,
+                0, 0, legDuration, null, coachCents, LegTable.NO_PRICE);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,45 @@
+package utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MoneyTest {
+
+    @Test
+    void format() {
+        assert Money.ofCents(0).toString().equals("$0.00");
+        assert Money.ofCents(5).toString().equals("$0.05");
+        assert Money.ofCents(7460).toString().equals("$74.60");
+        assert Money.ofCents(123456).toString().equals("$1,234.56");
+        assert Money.ofCents(123456789).toString().equals("$1,234,567.89");
+        assert Money.ofCents(-150).toString().equals("-$1.50");
+        assert Money.ofCents(Long.MIN_VALUE).toString().equals("-$92,233,720,368,547,758.08");
+    }
+
+    @Test
+    void formatCents() {
+        assert Money.format(123456).equals("$1,234.56");
+        assert Money.format(0).equals("$0.00");
+        assert Money.format(Money.NO_PRICE).isEmpty();
+    }
+
+    @Test
+    void convertBigDecimal() {
+        assert Money.of(new BigDecimal("172.58")).cents() == 17258;
+        assert Money.of(new BigDecimal("0.005")).cents() == 1;
+        assert Money.of(new BigDecimal("200")).cents() == 20000;
+        assert Money.ofCents(17258).toBigDecimal().equals(new BigDecimal("172.58"));
+    }
+
+    @Test
+    void compare() {
+        assert Money.ofCents(100).plus(Money.ofCents(250)).equals(Money.ofCents(350));
+        assert Money.ofCents(100).compareTo(Money.ofCents(250)) < 0;
+        assert Money.ofCents(0) == Money.ZERO;
+        assert Money.ofCents(350).hashCode() == Money.ofCents(350).hashCode();
+        assertThrows(ArithmeticException.class, () -> Money.ofCents(Long.MAX_VALUE).plus(Money.ofCents(1)));
+    }
+}
\ No newline at end of file
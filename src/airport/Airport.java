@@ -1,5 +1,6 @@
 package airport;
 
+import utils.IdRegistry;
 import utils.Saps;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
@@ -11,6 +12,12 @@ import java.time.ZonedDateTime;
  * are the same as defined by the CS509 server API and store values after conversion from
  * XML received from the server to Java primitives. Attributes are accessed via getter and
  * setter methods. Handles local and GMT time conversions.
+ *
+ * Each airport code is registered for a dense int id, so airports with the same code have the same id and can be
+ * compared, hashed and used as array indexes by id.
+ *
+ * The time zone of the airport is resolved once when its code is set. Times given as seconds since the epoch are
+ * converted with tables of the zone's offset transitions, without creating any ZoneId or ZonedDateTime objects.
  * 
  * @author Kevin Martin
  * @version 1.0 2020-05-06
@@ -18,6 +25,11 @@ import java.time.ZonedDateTime;
  * 
  */
 public class Airport {
+	/** Registry of the ids of airport codes */
+	private static final IdRegistry codeIds = new IdRegistry();
+	
+	/** Zone of the GMT times converted to and from local times */
+	private static final ZoneId GMT = ZoneId.ofOffset("GMT", ZoneOffset.ofHours(0));
 	
 	/**
 	 * Airport attributes as defined by the CS509 server interface XML
@@ -28,6 +40,12 @@ public class Airport {
 	/** Three character code of the airport */
 	private String mCode;              
 	
+	/** Id of the airport code, or IdRegistry.NO_ID if the code has not been set */
+	private int mId;
+	
+	/** Offsets of the time zone of the airport, or null if the zone is not known */
+	private ZoneOffsets mZoneOffsets;
+	
 	/** Latitude of airport in decimal format */
 	private double mLatitude;          
 	
@@ -46,6 +64,8 @@ public class Airport {
 	public Airport () {
 		mName = "";
 		mCode = "";
+		mId = IdRegistry.NO_ID;
+		mZoneOffsets = null;
 		mLatitude = Double.MAX_VALUE;
 		mLongitude = Double.MAX_VALUE;
 	}
@@ -79,9 +99,12 @@ public class Airport {
 	 * @throws IllegalArgumentException if code is invalid
 	 */
 	public void code (String code) {
-		if (isValidCode(code))
+		if (isValidCode(code)) {
 			mCode = code;
-		else
+			mId = codeIds.idOf(code);
+			String zone = Saps.AIRPORT_TIMEZONES.get(code);
+			mZoneOffsets = (zone == null) ? null : ZoneOffsets.of(zone);
+		} else
 			throw new IllegalArgumentException (code);
 	}
 	
@@ -94,6 +117,15 @@ public class Airport {
 		return mCode;
 	}
 	
+	/**
+	 * Get the id of the airport code
+	 * 
+	 * @return The dense id shared by every airport with the same code, or IdRegistry.NO_ID if the code is not set
+	 */
+	public int id () {
+		return mId;
+	}
+	
 	/**
 	 * Set the latitude for the airport
 	 * 
@@ -159,14 +191,27 @@ public class Airport {
 		// can't be equal if obj is not an instance of Airport
 		if (!(obj instanceof Airport)) return false;
 
-		// if all fields are equal, the Airports are the same
+		// airports with different codes have different ids, which is the cheapest field to compare
 		Airport rhs = (Airport) obj;
+		if (rhs.mId != mId) return false;
+
+		// if all fields are equal, the Airports are the same
 		return (rhs.mName.equalsIgnoreCase(mName)) &&
 				(rhs.mCode.equalsIgnoreCase(mCode)) &&
 				(rhs.mLatitude == mLatitude) &&
 				(rhs.mLongitude == mLongitude);
 	}
 
+	/**
+	 * Get the hash code of the airport, which is the id of its code
+	 *
+	 * @return The same hash code for airports which are equal
+	 */
+	@Override
+	public int hashCode () {
+		return mId;
+	}
+
 	/**
 	 * Determine if object instance has valid attribute data
 	 *
@@ -232,6 +277,15 @@ public class Airport {
 		return (!(longitude > Saps.MAX_LONGITUDE)) && (!(longitude < Saps.MIN_LONGITUDE));
 	}
 	
+	/**
+	 * Get the time zone of the airport
+	 * 
+	 * @return The time zone, or null if the zone of the airport is not known
+	 */
+	public ZoneId zoneId () {
+		return (mZoneOffsets == null) ? null : mZoneOffsets.zoneId();
+	}
+	
 	/**
 	 * Converts from GMT time to local time
 	 * 
@@ -242,10 +296,9 @@ public class Airport {
 		// Requires that the input time is GMT, or else the calculation will not be accurate
 		// input a GMT ZonedDatetime
 		// outputs a local ZonedDateTime for the respective airport object
-		String zone = Saps.AIRPORT_TIMEZONES.get(mCode);
-		if (zone == null)
+		if (mZoneOffsets == null)
 				return GMTZonedDateTime;
-		return ZonedDateTime.ofInstant(GMTZonedDateTime.toInstant(), ZoneId.of(zone));
+		return ZonedDateTime.ofInstant(GMTZonedDateTime.toInstant(), mZoneOffsets.zoneId());
 	}
 
 	/**
@@ -255,11 +308,43 @@ public class Airport {
 	 * @return The GMT zonedatetime
 	 */
 	public ZonedDateTime convertLocalDateTimetoGMT(LocalDateTime dateTime) {
-		String zone = Saps.AIRPORT_TIMEZONES.get(mCode);
-		if (zone == null)
-			return ZonedDateTime.of(dateTime, ZoneId.ofOffset("GMT", ZoneOffset.ofHours(0)));
-		ZonedDateTime localZonedDateTime = ZonedDateTime.of(dateTime, ZoneId.of(zone));
-		return ZonedDateTime.ofInstant(localZonedDateTime.toInstant(), ZoneId.ofOffset("GMT", ZoneOffset.ofHours(0)));
+		if (mZoneOffsets == null)
+			return ZonedDateTime.of(dateTime, GMT);
+		ZonedDateTime localZonedDateTime = ZonedDateTime.of(dateTime, mZoneOffsets.zoneId());
+		return ZonedDateTime.ofInstant(localZonedDateTime.toInstant(), GMT);
+	}
+
+	/**
+	 * Converts from a GMT time in seconds since the epoch to local time
+	 *
+	 * @param epochSecond The GMT time as seconds since the epoch
+	 * @return The local date and time at the airport, or the GMT date and time if the zone is not known
+	 */
+	public LocalDateTime convertGMTtoLocalDateTime(long epochSecond) {
+		return LocalDateTime.ofEpochSecond(epochSecond + gmtOffsetSeconds(epochSecond), 0, ZoneOffset.UTC);
+	}
+
+	/**
+	 * Converts from local time to a GMT time in seconds since the epoch
+	 *
+	 * @param dateTime The local date and time at the airport
+	 * @return The GMT time as seconds since the epoch, rounded down to the second
+	 */
+	public long convertLocalDateTimetoGMTSecond(LocalDateTime dateTime) {
+		long localEpochSecond = dateTime.toEpochSecond(ZoneOffset.UTC);
+		if (mZoneOffsets == null)
+			return localEpochSecond;
+		return localEpochSecond - mZoneOffsets.localOffsetSeconds(localEpochSecond);
+	}
+
+	/**
+	 * Get the offset of the local time at the airport from GMT
+	 *
+	 * @param epochSecond The GMT time as seconds since the epoch
+	 * @return The offset in seconds to add to GMT to get the local time, or 0 if the zone is not known
+	 */
+	public int gmtOffsetSeconds(long epochSecond) {
+		return (mZoneOffsets == null) ? 0 : mZoneOffsets.offsetSeconds(epochSecond);
 	}
 
 }
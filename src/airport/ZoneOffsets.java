@@ -0,0 +1,142 @@
+package airport;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The GMT offsets of a time zone, resolved once and shared by every airport in the zone.
+ *
+ * The offset transitions of the zone between 2000 and 2100 are copied out of its ZoneRules into arrays of seconds
+ * since the epoch, so converting a time in that range is a binary search that allocates nothing. Times outside the
+ * range fall back to the ZoneRules.
+ *
+ * Local times that are skipped or repeated by a transition use the offset before the transition, which gives the
+ * same instant as ZonedDateTime.of.
+ *
+ * @author agent
+ * @version 1.0 2026-10-18
+ * @since 2026-10-18
+ *
+ */
+final class ZoneOffsets {
+    /** First second covered by the transition tables */
+    private static final long TABLE_START = LocalDate.of(2000, 1, 1).toEpochDay() * 86400;
+    /** First second after the transition tables */
+    private static final long TABLE_END = LocalDate.of(2100, 1, 1).toEpochDay() * 86400;
+    /** Largest GMT offset of any zone, in seconds */
+    private static final long MAX_OFFSET_SECONDS = 18 * 60 * 60;
+
+    /** Offsets of each zone that has been resolved, by zone name */
+    private static final Map<String, ZoneOffsets> zones = new ConcurrentHashMap<>();
+
+    /** The zone */
+    private final ZoneId zoneId;
+    /** The rules of the zone, used outside the tables */
+    private final ZoneRules rules;
+    /** Offset in seconds before the first transition in the tables */
+    private final int firstOffsetSeconds;
+    /** Instant of each transition in seconds since the epoch */
+    private final long[] transitionSeconds;
+    /** First local second, counted as if it were GMT, that uses the offset after each transition */
+    private final long[] localTransitionSeconds;
+    /** Offset in seconds after each transition */
+    private final int[] offsetSecondsAfter;
+
+    /**
+     * Get the offsets of a zone, resolving the zone the first time it is used
+     *
+     * @param zone The name of the zone, such as America/New_York
+     * @return The offsets of the zone
+     * @throws java.time.DateTimeException If the zone is not known
+     */
+    static ZoneOffsets of(String zone) {
+        return zones.computeIfAbsent(zone, name -> new ZoneOffsets(ZoneId.of(name)));
+    }
+
+    /**
+     * Constructor copies the transitions of a zone into the tables
+     *
+     * @param zoneId The zone
+     */
+    private ZoneOffsets(ZoneId zoneId) {
+        this.zoneId = zoneId;
+        this.rules = zoneId.getRules();
+        firstOffsetSeconds = rules.getOffset(Instant.ofEpochSecond(TABLE_START)).getTotalSeconds();
+
+        List<ZoneOffsetTransition> transitions = new ArrayList<>();
+        ZoneOffsetTransition transition = rules.nextTransition(Instant.ofEpochSecond(TABLE_START));
+        while (transition != null && transition.toEpochSecond() < TABLE_END) {
+            transitions.add(transition);
+            transition = rules.nextTransition(transition.getInstant());
+        }
+
+        transitionSeconds = new long[transitions.size()];
+        localTransitionSeconds = new long[transitions.size()];
+        offsetSecondsAfter = new int[transitions.size()];
+        for (int i = 0; i < transitions.size(); i++) {
+            int before = transitions.get(i).getOffsetBefore().getTotalSeconds();
+            int after = transitions.get(i).getOffsetAfter().getTotalSeconds();
+            transitionSeconds[i] = transitions.get(i).toEpochSecond();
+            // Skipped and repeated local times keep the offset before the transition
+            localTransitionSeconds[i] = transitionSeconds[i] + Math.max(before, after);
+            offsetSecondsAfter[i] = after;
+        }
+    }
+
+    /**
+     * Get the zone
+     *
+     * @return The zone
+     */
+    ZoneId zoneId() {
+        return zoneId;
+    }
+
+    /**
+     * Get the GMT offset of the zone at an instant
+     *
+     * @param epochSecond The instant as seconds since the epoch
+     * @return The offset in seconds to add to GMT to get the local time
+     */
+    int offsetSeconds(long epochSecond) {
+        if (epochSecond < TABLE_START || epochSecond >= TABLE_END)
+            return rules.getOffset(Instant.ofEpochSecond(epochSecond)).getTotalSeconds();
+        int index = lastIndexAtOrBefore(transitionSeconds, epochSecond);
+        return index < 0 ? firstOffsetSeconds : offsetSecondsAfter[index];
+    }
+
+    /**
+     * Get the GMT offset of the zone at a local time
+     *
+     * @param localEpochSecond The local time as seconds since the epoch, counted as if it were GMT
+     * @return The offset in seconds to subtract from the local time to get GMT
+     */
+    int localOffsetSeconds(long localEpochSecond) {
+        if (localEpochSecond < TABLE_START + MAX_OFFSET_SECONDS || localEpochSecond >= TABLE_END - MAX_OFFSET_SECONDS)
+            return rules.getOffset(LocalDateTime.ofEpochSecond(localEpochSecond, 0, ZoneOffset.UTC)).getTotalSeconds();
+        int index = lastIndexAtOrBefore(localTransitionSeconds, localEpochSecond);
+        return index < 0 ? firstOffsetSeconds : offsetSecondsAfter[index];
+    }
+
+    /**
+     * Binary search for the last second at or before a second
+     *
+     * @param seconds Seconds in increasing order
+     * @param second The second to search for
+     * @return The index of the last second at or before the second, or -1 if there is none
+     */
+    private static int lastIndexAtOrBefore(long[] seconds, long second) {
+        int index = Arrays.binarySearch(seconds, second);
+        return index >= 0 ? index : -index - 2;
+    }
+}
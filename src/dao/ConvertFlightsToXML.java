@@ -1,5 +1,6 @@
 package dao;
 
+import airport.Airport;
 import flight.Flight;
 import flight.Flights;
 import leg.Leg;
@@ -7,15 +8,18 @@ import org.w3c.dom.Attr;
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
 import org.w3c.dom.Node;
+import utils.Money;
 import utils.NotificationManager;
 
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
 import javax.xml.transform.*;
 import javax.xml.transform.dom.DOMSource;
 import javax.xml.transform.stream.StreamResult;
+import java.io.OutputStream;
 import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.time.ZonedDateTime;
 
 /**
  * Builds an XML string from a collection of flights to reserve a seat on each flight for each passenger.
@@ -24,12 +28,16 @@ import java.io.StringWriter;
  * a flight number and seating type according to the server API format. A node is added for each passenger on
  * each flight. The document is then transformed to an XML formatted String.
  *
+ * Also writes search results as XML. Each flight is written to the stream as soon as it is converted, so the
+ * results can be sent to a client without building a document for all of them first.
+ *
  * @author Kevin Martin
  * @version 1.0 2019-05-01
  * @since 2016-05-01
  *
  */
 public class ConvertFlightsToXML {
+
     /**
      * Creates an XML formatted string from a Flights collection.
      *
@@ -45,12 +53,10 @@ public class ConvertFlightsToXML {
     public static String buildPostXML(Flights flights, int numberOfPassengers) {
         // Generate a new empty document
         Document document = null;
-        DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
         try {
-            DocumentBuilder builder = factory.newDocumentBuilder();
-            document = builder.newDocument();
+            document = XmlContext.documentBuilder().newDocument();
 
-        } catch (ParserConfigurationException parserException) {
+        } catch (IllegalStateException parserException) {
             parserException.printStackTrace();
         }
 
@@ -96,10 +102,8 @@ public class ConvertFlightsToXML {
     private static String convertDOMToXML(Document document){
         // attempts to convert document to string
         try {
-            // create Transformer for transformation
-            TransformerFactory transformerFactory = TransformerFactory.newInstance();
-            Transformer transformer = transformerFactory.newTransformer();
-            transformer.setOutputProperty(OutputKeys.OMIT_XML_DECLARATION, "yes");
+            // reuse the Transformer of this thread for transformation
+            Transformer transformer = XmlContext.transformer();
 
             // create stringwriter to store transformation output
             StringWriter writer = new StringWriter();
@@ -108,9 +112,9 @@ public class ConvertFlightsToXML {
             transformer.transform(new DOMSource(document), new StreamResult(writer));
             return writer.getBuffer().toString();
         }
-        // handle exception creating TransformerFactory
-        catch (TransformerFactoryConfigurationError factoryError) {
-            System.err.println("Error creating " + "TransformerFactory");
+        // handle exception creating Transformer
+        catch (IllegalStateException factoryError) {
+            System.err.println("Error creating " + "Transformer");
             factoryError.printStackTrace();
 
         }catch (TransformerException transformerError) {
@@ -151,4 +155,135 @@ public class ConvertFlightsToXML {
 
         return legNode;
     }
+
+    /**
+     * Writes flights found by a search to a stream as XML.
+     *
+     * The root Flights element holds a Flight element for each flight, in the order of the list. Each Flight element
+     * holds a Leg element for each leg, in the same format that the server uses for legs.
+     *
+     * @param flights The flights to write
+     * @param outputStream The stream to write the UTF-8 encoded XML to, which is flushed but not closed
+     * @throws XMLStreamException If the XML could not be written to the stream
+     */
+    public static void writeFlights(Flights flights, OutputStream outputStream) throws XMLStreamException {
+        XMLStreamWriter writer = startFlights(outputStream);
+        try {
+            for (Flight thisFlight : flights)
+                writeFlight(writer, thisFlight);
+            endFlights(writer);
+        } finally {
+            writer.close();
+        }
+    }
+
+    /**
+     * Starts writing flights to a stream as XML one at a time, in the same format as writeFlights. Each flight is
+     * written with writeFlight, and the document is finished with endFlights.
+     *
+     * @param outputStream The stream to write the UTF-8 encoded XML to
+     * @return The writer for the flights
+     * @throws XMLStreamException If the XML could not be written to the stream
+     */
+    public static XMLStreamWriter startFlights(OutputStream outputStream) throws XMLStreamException {
+        XMLStreamWriter writer = XmlContext.xmlOutputFactory.createXMLStreamWriter(outputStream, StandardCharsets.UTF_8.name());
+        writer.writeStartDocument(StandardCharsets.UTF_8.name(), "1.0");
+        writer.writeStartElement("Flights");
+        return writer;
+    }
+
+    /**
+     * Writes a flight as an XML element holding a Leg element for each leg
+     *
+     * @param writer The writer returned by startFlights
+     * @param flight The flight to write
+     * @throws XMLStreamException If the XML could not be written
+     */
+    public static void writeFlight(XMLStreamWriter writer, Flight flight) throws XMLStreamException {
+        writer.writeStartElement("Flight");
+        writer.writeAttribute("SeatingType", flight.getSeatingType());
+        writer.writeAttribute("Price", Money.format(flight.getTotalCents()));
+        writer.writeAttribute("TravelTime", Long.toString(flight.getTotalTravelTime().toMinutes()));
+        writer.writeAttribute("Layovers", Integer.toString(flight.getNumberOfLayovers()));
+        for (Leg leg : flight.legList())
+            writeLeg(writer, leg);
+        writer.writeEndElement();
+    }
+
+    /**
+     * Writes an error as an XML element, so a client reading flights as they are written can tell that the list of
+     * flights is not complete
+     *
+     * @param writer The writer returned by startFlights
+     * @param message The description of the error
+     * @throws XMLStreamException If the XML could not be written
+     */
+    public static void writeError(XMLStreamWriter writer, String message) throws XMLStreamException {
+        writer.writeStartElement("Error");
+        writer.writeAttribute("Message", message);
+        writer.writeEndElement();
+    }
+
+    /**
+     * Finishes the document started by startFlights and flushes it to the stream, which is not closed
+     *
+     * @param writer The writer returned by startFlights
+     * @throws XMLStreamException If the XML could not be written
+     */
+    public static void endFlights(XMLStreamWriter writer) throws XMLStreamException {
+        writer.writeEndElement();
+        writer.writeEndDocument();
+        writer.flush();
+    }
+
+    /**
+     * Writes a leg as an XML element in the format of the server
+     *
+     * @param writer The writer for the XML
+     * @param leg The leg to write
+     * @throws XMLStreamException If the XML could not be written
+     */
+    private static void writeLeg(XMLStreamWriter writer, Leg leg) throws XMLStreamException {
+        writer.writeStartElement("Leg");
+        writer.writeAttribute("Airplane", leg.getPlane() == null ? "" : leg.getPlane().model());
+        writer.writeAttribute("FlightTime", Long.toString(leg.getLegDuration().toMinutes()));
+        writer.writeAttribute("Number", Integer.toString(leg.getFlightNumber()));
+
+        writeStop(writer, "Departure", leg.getBoardingAirport(), leg.getBoardingTime());
+        writeStop(writer, "Arrival", leg.getDisembarkingAirport(), leg.getDisembarkingTime());
+
+        writer.writeStartElement("Seating");
+        writer.writeStartElement("FirstClass");
+        writer.writeAttribute("Price", Money.format(leg.getFirstClassCents()));
+        writer.writeCharacters(Integer.toString(leg.getReservedFirstClassSeats()));
+        writer.writeEndElement();
+        writer.writeStartElement("Coach");
+        writer.writeAttribute("Price", Money.format(leg.getCoachCents()));
+        writer.writeCharacters(Integer.toString(leg.getReservedCoachSeats()));
+        writer.writeEndElement();
+        writer.writeEndElement();
+
+        writer.writeEndElement();
+    }
+
+    /**
+     * Writes the airport and time of one end of a leg
+     *
+     * @param writer The writer for the XML
+     * @param elementName Departure or Arrival
+     * @param airport [possibly null] The airport
+     * @param time The GMT time at the airport
+     * @throws XMLStreamException If the XML could not be written
+     */
+    private static void writeStop(XMLStreamWriter writer, String elementName, Airport airport, ZonedDateTime time)
+            throws XMLStreamException {
+        writer.writeStartElement(elementName);
+        writer.writeStartElement("Code");
+        writer.writeCharacters(airport == null ? "" : airport.code());
+        writer.writeEndElement();
+        writer.writeStartElement("Time");
+        writer.writeCharacters(XmlContext.serverDateTimeStyle.format(time));
+        writer.writeEndElement();
+        writer.writeEndElement();
+    }
 }
@@ -1,37 +1,28 @@
 package dao;
 
-import java.io.IOException;
+import java.io.InputStream;
 import java.io.StringReader;
-import java.math.BigDecimal;
-import java.text.NumberFormat;
-import java.text.ParseException;
 import java.time.*;
-import java.time.format.DateTimeFormatter;
-import java.util.Locale;
+import java.util.function.Consumer;
 
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 
 import airport.Airport;
-import org.w3c.dom.CharacterData;
-import org.w3c.dom.Document;
-import org.w3c.dom.Element;
-import org.w3c.dom.Node;
-import org.w3c.dom.NodeList;
-import org.xml.sax.InputSource;
-import org.xml.sax.SAXException;
 
 import leg.Leg;
+import leg.LegTable;
 import leg.Legs;
 import plane.Plane;
 
 /**
  * Builds a collection of legs from legs described in XML.
  *
- * Parses an XML string to read each of the legs and adds each valid leg
- * to the collection. The class uses Java DOM (Document Object Model) to convert
- * from XML to Java primitives.
+ * Reads the XML one element at a time to build each of the legs and adds each valid leg
+ * to the collection. The class uses Java StAX (Streaming API for XML) to convert
+ * from XML to Java primitives, so legs can be read straight from the server response
+ * without first holding the whole response in memory.
  *
  * @author Kevin Martin
  * @version 1.0 2019-01-21
@@ -39,6 +30,7 @@ import plane.Plane;
  *
  */
 public class DaoLeg {
+
     /**
      *  Creates Leg objects from XML.
      *
@@ -55,143 +47,166 @@ public class DaoLeg {
      */
     public static Legs addAll (String xmlLegs) throws NullPointerException {
         Legs legs = new Legs();
-
-        // Load the XML string into a DOM tree for ease of processing
-        // then iterate over all nodes adding each Leg to our collection
-        Document docLegs = buildDomDoc(xmlLegs);
-        if (docLegs != null){
-            NodeList nodesLegs = docLegs.getElementsByTagName("Flight");
-
-            for (int i = 0; i < nodesLegs.getLength(); i++) {
-                Element elementLeg = (Element) nodesLegs.item(i);
-                Leg leg = buildLeg(elementLeg);
-
-                legs.add(leg);
-            }
+        try {
+            parse(XmlContext.xmlInputFactory.createXMLStreamReader(new StringReader(xmlLegs)), legs::add);
+        }
+        catch (XMLStreamException e) {
+            e.printStackTrace();
         }
-
         return legs;
     }
 
     /**
-     * Creates a Leg object from a DOM node.
+     *  Creates Leg objects from an XML stream.
+     *
+     * Method reads the stream until the end of the set of Leg nodes, building each Leg
+     * object as soon as its node has been read and adding it to the Leg collection.
      *
-     * Processes a DOM Node that describes a leg and creates a Leg object from the information
-     * @param nodeLeg is a DOM Node describing a leg
-     * @return Leg object created from the DOM Node representation of the leg
+     * @param xmlLegs stream of XML containing set of legs, which is not closed by this method
+     * @return [possibly empty] collection of Legs in the stream, up to any malformed XML
      *
-     * @pre nodeLeg is of format specified by CS509 server API
-     * @post Leg object instantiated. Caller responsible for deallocating memory.
+     * @pre the stream adheres to the format specified by the server API
+     * @post the [possibly empty] set of Legs in the stream are added to collection
      */
-    static private Leg buildLeg (Node nodeLeg) {
-        DateTimeFormatter serverDateTimeStyle = DateTimeFormatter.ofPattern("yyyy MMM dd HH:mm zzz");
-        ZoneId gmt = ZoneId.ofOffset("GMT", ZoneOffset.ofHours(0));
-        NumberFormat serverPriceStyle = NumberFormat.getCurrencyInstance(Locale.US);
-        Airport disembarkingAirport;
-        Airport boardingAirport;
-        ZonedDateTime disembarkingTime;
-        ZonedDateTime boardingTime;
-        int flightNumber;
-        int reservedCoachSeats;
-        int reservedFirstClassSeats;
-        Duration legDuration;
-        Plane plane;
-        BigDecimal coachPrice;
-        BigDecimal firstClassPrice;
+    public static Legs addAll (InputStream xmlLegs) {
+        Legs legs = new Legs();
+        addAll(xmlLegs, legs::add);
+        return legs;
+    }
 
-        // The leg element has attributes of plane model, flight time, and flight number
-        Element elementLeg = (Element) nodeLeg;
-        plane = LocalFlightDatabase.getInstance().getPlaneFromModel(elementLeg.getAttributeNode("Airplane").getValue());
-        legDuration = Duration.ofMinutes(Integer.parseInt(elementLeg.getAttributeNode("FlightTime").getValue()));
-        flightNumber = Integer.parseInt(elementLeg.getAttributeNode("Number").getValue());
-
-        // The arrival element has child elements code and time
-        Element elementDisembarking = (Element)elementLeg.getElementsByTagName("Arrival").item(0);
-        Element elementDisembarkingAirportCode = (Element)elementDisembarking.getElementsByTagName("Code").item(0);
-        Element elementDisembarkingTime = (Element)elementDisembarking.getElementsByTagName("Time").item(0);
-        disembarkingAirport = LocalFlightDatabase.getInstance().getAirportFromString(getCharacterDataFromElement(elementDisembarkingAirportCode));
-        disembarkingTime = ZonedDateTime.of(LocalDateTime.parse(getCharacterDataFromElement(elementDisembarkingTime), serverDateTimeStyle), gmt);
-
-        // The departure element has child elements code and time
-        Element elementBoarding = (Element)elementLeg.getElementsByTagName("Departure").item(0);
-        Element elementBoardingAirportCode = (Element)elementBoarding.getElementsByTagName("Code").item(0);
-        Element elementBoardingTime = (Element)elementBoarding.getElementsByTagName("Time").item(0);
-        boardingAirport = LocalFlightDatabase.getInstance().getAirportFromString(getCharacterDataFromElement(elementBoardingAirportCode));
-        boardingTime = ZonedDateTime.of(LocalDateTime.parse(getCharacterDataFromElement(elementBoardingTime), serverDateTimeStyle), gmt);
-
-        // The seating element has child elements coach and first class
-        Element elementSeating = (Element)elementLeg.getElementsByTagName("Seating").item(0);
-        Element elementCoach = (Element)elementSeating.getElementsByTagName("Coach").item(0);
-        Element elementFirstClass = (Element)elementSeating.getElementsByTagName("FirstClass").item(0);
-        reservedCoachSeats = Integer.parseInt(getCharacterDataFromElement(elementCoach));
-        reservedFirstClassSeats = Integer.parseInt(getCharacterDataFromElement(elementFirstClass));
-
-        // The coach element has attribute price
-        try{
-            coachPrice = new BigDecimal(serverPriceStyle.parse(elementCoach.getAttributeNode("Price").getValue()).toString());
+    /**
+     *  Emits Leg objects from an XML stream as they are read.
+     *
+     * @param xmlLegs stream of XML containing set of legs, which is not closed by this method
+     * @param legConsumer receives each Leg as soon as its node has been read
+     *
+     * @pre the stream adheres to the format specified by the server API
+     * @post every Leg in the stream, up to any malformed XML, has been passed to the consumer
+     */
+    public static void addAll (InputStream xmlLegs, Consumer<Leg> legConsumer) {
+        try {
+            parse(XmlContext.xmlInputFactory.createXMLStreamReader(xmlLegs), legConsumer);
         }
-        catch(ParseException pe){ coachPrice = new BigDecimal(0); }
-
-        // The first class element has attribute price
-        try{
-            firstClassPrice = new BigDecimal(serverPriceStyle.parse(elementFirstClass.getAttributeNode("Price").getValue()).toString());
+        catch (XMLStreamException e) {
+            e.printStackTrace();
         }
-        catch(ParseException pe){ firstClassPrice = new BigDecimal(0); }
-
-        // Instantiate an empty Plane object and initialize with data from XML node
-        Leg leg = new Leg();
-
-        leg.setDisembarkingAirport(disembarkingAirport);
-        leg.setBoardingAirport(boardingAirport);
-        leg.setDisembarkingTime(disembarkingTime);
-        leg.setBoardingTime(boardingTime);
-        leg.setFlightNumber(flightNumber);
-        leg.setPlane(plane);
-        leg.setLegDuration(legDuration);
-        leg.setCoachPrice(coachPrice);
-        leg.setFirstClassPrice(firstClassPrice);
-        leg.setReservedCoachSeats(reservedCoachSeats);
-        leg.setReservedFirstClassSeats(reservedFirstClassSeats);
-
-        return leg;
     }
 
     /**
-     * Builds a DOM tree from an XML string.
+     *  Creates Leg objects from an XML stream, failing if the stream is not read to the end.
      *
-     * Parses the XML file and returns a DOM tree that can be processed
+     * @param xmlLegs stream of XML containing set of legs, which is not closed by this method
+     * @return [possibly empty] collection of Legs in the stream
+     * @throws XMLStreamException if the XML is malformed or the stream could not be read
      *
-     * @param xmlString XML String containing set of objects
-     * @return DOM tree from parsed XML or null if exception is caught
+     * @pre the stream adheres to the format specified by the server API
      */
-    static private Document buildDomDoc (String xmlString) {
-        // load the xml string into a DOM document and return the Document
-        try {
-            DocumentBuilderFactory docBuilderFactory = DocumentBuilderFactory.newInstance();
-            DocumentBuilder docBuilder = docBuilderFactory.newDocumentBuilder();
-            InputSource inputSource = new InputSource();
-            inputSource.setCharacterStream(new StringReader(xmlString));
+    static Legs readAll (InputStream xmlLegs) throws XMLStreamException {
+        Legs legs = new Legs();
+        parse(XmlContext.xmlInputFactory.createXMLStreamReader(xmlLegs), legs::add);
+        return legs;
+    }
 
-            return docBuilder.parse(inputSource);
+    /**
+     * Reads every leg element from an XML stream.
+     *
+     * @param reader is positioned at the start of the XML document
+     * @param legConsumer receives each Leg as soon as its element has been read
+     * @throws XMLStreamException if the XML is malformed
+     */
+    static private void parse (XMLStreamReader reader, Consumer<Leg> legConsumer) throws XMLStreamException {
+        try {
+            while (reader.hasNext()) {
+                if (reader.next() == XMLStreamConstants.START_ELEMENT && reader.getLocalName().equals("Flight"))
+                    legConsumer.accept(buildLeg(reader));
+            }
         }
-        catch (ParserConfigurationException | SAXException | IOException e) {
-            e.printStackTrace();
-            return null;
+        finally {
+            reader.close();
         }
     }
 
     /**
-     * Retrieve character data from an element if it exists.
+     * Creates a Leg object from a leg element of an XML stream.
      *
-     * @param e is the DOM Element to retrieve character data from
-     * @return the character data as String [possibly empty String]
+     * Reads the elements that describe a leg and creates a Leg object from the information
+     * @param reader is positioned at the start of an element describing a leg
+     * @return Leg object created from the XML representation of the leg
+     * @throws XMLStreamException if the XML is malformed
+     *
+     * @pre the leg element is of format specified by CS509 server API
+     * @post reader is positioned at the end of the leg element
      */
-    private static String getCharacterDataFromElement (Element e) {
-        Node child = e.getFirstChild();
-        if (child instanceof CharacterData) {
-            CharacterData cd = (CharacterData) child;
-            return cd.getData();
+    static private Leg buildLeg (XMLStreamReader reader) throws XMLStreamException {
+        Airport disembarkingAirport = null;
+        Airport boardingAirport = null;
+        ZonedDateTime disembarkingTime = null;
+        ZonedDateTime boardingTime = null;
+        int flightNumber;
+        int reservedCoachSeats = 0;
+        int reservedFirstClassSeats = 0;
+        Duration legDuration;
+        Plane plane;
+        long coachCents = LegTable.NO_PRICE;
+        long firstClassCents = LegTable.NO_PRICE;
+
+        // The leg element has attributes of plane model, flight time, and flight number
+        plane = LocalFlightDatabase.getInstance().getPlaneFromModel(reader.getAttributeValue(null, "Airplane"));
+        legDuration = Duration.ofMinutes(Integer.parseInt(reader.getAttributeValue(null, "FlightTime")));
+        flightNumber = Integer.parseInt(reader.getAttributeValue(null, "Number"));
+
+        // The departure and arrival elements have child elements code and time,
+        // the seating element has child elements coach and first class
+        boolean isDeparture = false;
+        while (!(reader.next() == XMLStreamConstants.END_ELEMENT && reader.getLocalName().equals("Flight"))) {
+            if (reader.getEventType() != XMLStreamConstants.START_ELEMENT) continue;
+
+            switch (reader.getLocalName()) {
+                case "Departure":
+                    isDeparture = true;
+                    break;
+                case "Arrival":
+                    isDeparture = false;
+                    break;
+                case "Code":
+                    Airport airport = LocalFlightDatabase.getInstance().getAirportFromString(reader.getElementText());
+                    if (isDeparture) boardingAirport = airport;
+                    else disembarkingAirport = airport;
+                    break;
+                case "Time":
+                    ZonedDateTime time = ZonedDateTime.of(LocalDateTime.parse(reader.getElementText(), XmlContext.serverDateTimeStyle), XmlContext.gmt);
+                    if (isDeparture) boardingTime = time;
+                    else disembarkingTime = time;
+                    break;
+                case "Coach":
+                    // The coach element has attribute price
+                    coachCents = parsePrice(reader.getAttributeValue(null, "Price"));
+                    reservedCoachSeats = Integer.parseInt(reader.getElementText());
+                    break;
+                case "FirstClass":
+                    // The first class element has attribute price
+                    firstClassCents = parsePrice(reader.getAttributeValue(null, "Price"));
+                    reservedFirstClassSeats = Integer.parseInt(reader.getElementText());
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        return new Leg(disembarkingAirport, boardingAirport, disembarkingTime, boardingTime, flightNumber,
+                reservedCoachSeats, reservedFirstClassSeats, legDuration, plane, coachCents, firstClassCents);
+    }
+
+    /**
+     * Converts a price given by the server to cents.
+     *
+     * @param price the price in US currency format, such as $1,234.56
+     * @return the price in cents, or zero if the price cannot be read
+     */
+    private static long parsePrice (String price) {
+        try{
+            return XmlContext.parseCents(price);
         }
-        return "";
+        catch(NumberFormatException | ArithmeticException e){ return 0; }
     }
 }
@@ -4,8 +4,6 @@ import java.io.IOException;
 import java.io.StringReader;
 
 import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.parsers.ParserConfigurationException;
 
 import org.w3c.dom.CharacterData;
 import org.w3c.dom.Document;
@@ -118,14 +116,13 @@ public class DaoPlane {
     static private Document buildDomDoc (String xmlString) {
         // load the xml string into a DOM document and return the Document
         try {
-            DocumentBuilderFactory docBuilderFactory = DocumentBuilderFactory.newInstance();
-            DocumentBuilder docBuilder = docBuilderFactory.newDocumentBuilder();
+            DocumentBuilder docBuilder = XmlContext.documentBuilder();
             InputSource inputSource = new InputSource();
             inputSource.setCharacterStream(new StringReader(xmlString));
 
             return docBuilder.parse(inputSource);
         }
-        catch (ParserConfigurationException | IOException | SAXException e) {
+        catch (IOException | SAXException e) {
             e.printStackTrace();
             return null;
         }
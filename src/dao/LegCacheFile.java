@@ -0,0 +1,361 @@
+package dao;
+
+import airport.Airport;
+import airport.Airports;
+import leg.Leg;
+import leg.LegTable;
+import leg.Legs;
+import plane.Plane;
+import plane.Planes;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The airports, planes and leg tables of the LocalFlightDatabase as stored in a binary file between runs.
+ *
+ * Each list of airports, planes or legs is stored with the time it was fetched from the server, so that a restart can
+ * use the stored lists right away and only fetch the old ones again. Airports and planes are written once and legs
+ * refer to them by index, so every leg read from the file shares the same airport and plane objects.
+ *
+ * The file is written to a temporary file which then replaces the old file, so a run that stops while writing never
+ * leaves a partial file behind. A file with a different format version is ignored.
+ *
+ * @author agent
+ * @version 1.0 2026-10-18
+ * @since 2026-10-18
+ *
+ */
+final class LegCacheFile {
+    /** The first bytes of every cache file */
+    private static final int MAGIC = 0x46464C43;
+    /** Version of the file format, which must be increased whenever the format changes */
+    private static final int VERSION = 1;
+    /** Index of a missing airport or plane */
+    private static final int NONE = -1;
+
+    /** A table of legs for an airport and date, with the time it was fetched from the server */
+    static final class Entry {
+        final boolean isBoarding;
+        final String airportCode;
+        final LocalDate date;
+        final long fetchedAt;
+        final LegTable legs;
+
+        /**
+         * Constructor stores the values of the entry
+         *
+         * @param isBoarding True if the legs board at the airport on the date, false if they disembark there
+         * @param airportCode The code of the airport
+         * @param date The GMT date
+         * @param fetchedAt The time the legs were fetched in milliseconds since the epoch
+         * @param legs The legs
+         */
+        Entry(boolean isBoarding, String airportCode, LocalDate date, long fetchedAt, LegTable legs) {
+            this.isBoarding = isBoarding;
+            this.airportCode = airportCode;
+            this.date = date;
+            this.fetchedAt = fetchedAt;
+            this.legs = legs;
+        }
+    }
+
+    /** [possibly empty] The airports from the server */
+    final Airports airports;
+    /** The time the airports were fetched in milliseconds since the epoch, 0 if there are none */
+    final long airportsFetchedAt;
+    /** [possibly empty] The planes from the server */
+    final Planes planes;
+    /** The time the planes were fetched in milliseconds since the epoch, 0 if there are none */
+    final long planesFetchedAt;
+    /** [possibly empty] The tables of legs */
+    final List<Entry> entries;
+
+    /**
+     * Constructor stores the contents of a file
+     *
+     * @param airports [possibly empty] The airports from the server
+     * @param airportsFetchedAt The time the airports were fetched in milliseconds since the epoch
+     * @param planes [possibly empty] The planes from the server
+     * @param planesFetchedAt The time the planes were fetched in milliseconds since the epoch
+     * @param entries [possibly empty] The tables of legs
+     */
+    LegCacheFile(Airports airports, long airportsFetchedAt, Planes planes, long planesFetchedAt, List<Entry> entries) {
+        this.airports = airports;
+        this.airportsFetchedAt = airportsFetchedAt;
+        this.planes = planes;
+        this.planesFetchedAt = planesFetchedAt;
+        this.entries = entries;
+    }
+
+    /**
+     * Reads a cache file
+     *
+     * @param file The file to read
+     * @return The contents of the file
+     * @throws IOException If the file could not be read, or is not a cache file of the current version
+     */
+    static LegCacheFile read(Path file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION)
+                throw new IOException("Not a leg cache file of version " + VERSION + ": " + file);
+
+            List<Airport> allAirports = new ArrayList<>();
+            for (int i = in.readInt(); i > 0; i--)
+                allAirports.add(readAirport(in));
+            List<Plane> allPlanes = new ArrayList<>();
+            for (int i = in.readInt(); i > 0; i--)
+                allPlanes.add(readPlane(in));
+
+            Airports airports = new Airports();
+            long airportsFetchedAt = in.readLong();
+            for (int i = in.readInt(); i > 0; i--)
+                airports.add(allAirports.get(in.readInt()));
+            Planes planes = new Planes();
+            long planesFetchedAt = in.readLong();
+            for (int i = in.readInt(); i > 0; i--)
+                planes.add(allPlanes.get(in.readInt()));
+
+            List<Entry> entries = new ArrayList<>();
+            for (int i = in.readInt(); i > 0; i--) {
+                boolean isBoarding = in.readBoolean();
+                String airportCode = in.readUTF();
+                LocalDate date = LocalDate.ofEpochDay(in.readLong());
+                long fetchedAt = in.readLong();
+                Legs legs = new Legs();
+                for (int row = in.readInt(); row > 0; row--)
+                    legs.add(readLeg(in, allAirports, allPlanes));
+                LegTable table = isBoarding ? LegTable.byBoardingTime(legs) : LegTable.byDisembarkingTime(legs);
+                entries.add(new Entry(isBoarding, airportCode, date, fetchedAt, table));
+            }
+            return new LegCacheFile(airports, airportsFetchedAt, planes, planesFetchedAt, entries);
+        } catch (RuntimeException exc) {
+            // Values that can not be stored in an airport, plane or leg mean the file is damaged
+            throw new IOException("Damaged leg cache file: " + file, exc);
+        }
+    }
+
+    /**
+     * Writes the contents to a cache file, replacing the file only once it has been written completely
+     *
+     * @param file The file to write
+     * @throws IOException If the file could not be written
+     */
+    void write(Path file) throws IOException {
+        // Index every airport and plane that is stored in a list or referred to by a leg
+        Map<String, Integer> airportIndexes = new HashMap<>();
+        List<Airport> allAirports = new ArrayList<>();
+        Map<String, Integer> planeIndexes = new HashMap<>();
+        List<Plane> allPlanes = new ArrayList<>();
+        for (Airport airport : airports)
+            indexAirport(airport, airportIndexes, allAirports);
+        for (Plane plane : planes)
+            indexPlane(plane, planeIndexes, allPlanes);
+        for (Entry entry : entries) {
+            for (int row = 0; row < entry.legs.size(); row++) {
+                Leg leg = entry.legs.toLeg(row);
+                indexAirport(leg.getBoardingAirport(), airportIndexes, allAirports);
+                indexAirport(leg.getDisembarkingAirport(), airportIndexes, allAirports);
+                indexPlane(leg.getPlane(), planeIndexes, allPlanes);
+            }
+        }
+
+        Path directory = file.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path temporaryFile = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporaryFile)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+
+                out.writeInt(allAirports.size());
+                for (Airport airport : allAirports)
+                    writeAirport(out, airport);
+                out.writeInt(allPlanes.size());
+                for (Plane plane : allPlanes)
+                    writePlane(out, plane);
+
+                out.writeLong(airportsFetchedAt);
+                out.writeInt(airports.size());
+                for (Airport airport : airports)
+                    out.writeInt(airportIndexes.get(airport.code()));
+                out.writeLong(planesFetchedAt);
+                out.writeInt(planes.size());
+                for (Plane plane : planes)
+                    out.writeInt(planeIndexes.get(plane.model()));
+
+                out.writeInt(entries.size());
+                for (Entry entry : entries) {
+                    out.writeBoolean(entry.isBoarding);
+                    out.writeUTF(entry.airportCode);
+                    out.writeLong(entry.date.toEpochDay());
+                    out.writeLong(entry.fetchedAt);
+                    out.writeInt(entry.legs.size());
+                    for (int row = 0; row < entry.legs.size(); row++)
+                        writeLeg(out, entry.legs, row, airportIndexes, planeIndexes);
+                }
+            }
+            Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporaryFile);
+        }
+    }
+
+    /**
+     * Adds an airport to the airports written to the file if one with the same code has not been added
+     *
+     * @param airport [possibly null] The airport
+     * @param indexes Index of each added airport by code
+     * @param allAirports The added airports
+     */
+    private static void indexAirport(Airport airport, Map<String, Integer> indexes, List<Airport> allAirports) {
+        if (airport == null || indexes.containsKey(airport.code())) return;
+        indexes.put(airport.code(), allAirports.size());
+        allAirports.add(airport);
+    }
+
+    /**
+     * Adds a plane to the planes written to the file if one with the same model has not been added
+     *
+     * @param plane [possibly null] The plane
+     * @param indexes Index of each added plane by model
+     * @param allPlanes The added planes
+     */
+    private static void indexPlane(Plane plane, Map<String, Integer> indexes, List<Plane> allPlanes) {
+        if (plane == null || indexes.containsKey(plane.model())) return;
+        indexes.put(plane.model(), allPlanes.size());
+        allPlanes.add(plane);
+    }
+
+    /**
+     * Writes the values of an airport
+     *
+     * @param out The stream of the file
+     * @param airport The airport
+     * @throws IOException If the airport could not be written
+     */
+    private static void writeAirport(DataOutputStream out, Airport airport) throws IOException {
+        out.writeUTF(airport.code());
+        out.writeUTF(airport.name());
+        out.writeDouble(airport.latitude());
+        out.writeDouble(airport.longitude());
+    }
+
+    /**
+     * Reads an airport, leaving values which were never set at their defaults
+     *
+     * @param in The stream of the file
+     * @return A new airport
+     * @throws IOException If the airport could not be read
+     */
+    private static Airport readAirport(DataInputStream in) throws IOException {
+        Airport airport = new Airport();
+        String code = in.readUTF();
+        String name = in.readUTF();
+        double latitude = in.readDouble();
+        double longitude = in.readDouble();
+        if (!code.isEmpty()) airport.code(code);
+        if (!name.isEmpty()) airport.name(name);
+        if (Airport.isValidLatitude(latitude)) airport.latitude(latitude);
+        if (Airport.isValidLongitude(longitude)) airport.longitude(longitude);
+        return airport;
+    }
+
+    /**
+     * Writes the values of a plane
+     *
+     * @param out The stream of the file
+     * @param plane The plane
+     * @throws IOException If the plane could not be written
+     */
+    private static void writePlane(DataOutputStream out, Plane plane) throws IOException {
+        out.writeUTF(plane.model());
+        out.writeUTF(plane.manufacturer());
+        out.writeInt(plane.coachSeats());
+        out.writeInt(plane.firstClassSeats());
+    }
+
+    /**
+     * Reads a plane, leaving values which were never set at their defaults
+     *
+     * @param in The stream of the file
+     * @return A new plane
+     * @throws IOException If the plane could not be read
+     */
+    private static Plane readPlane(DataInputStream in) throws IOException {
+        Plane plane = new Plane();
+        String model = in.readUTF();
+        String manufacturer = in.readUTF();
+        if (!model.isEmpty()) plane.model(model);
+        if (!manufacturer.isEmpty()) plane.manufacturer(manufacturer);
+        plane.coachSeats(in.readInt());
+        plane.firstClassSeats(in.readInt());
+        return plane;
+    }
+
+    /**
+     * Writes the values of a row of a leg table
+     *
+     * @param out The stream of the file
+     * @param legs The table of legs
+     * @param row The row of the leg
+     * @param airportIndexes Index of each written airport by code
+     * @param planeIndexes Index of each written plane by model
+     * @throws IOException If the leg could not be written
+     */
+    private static void writeLeg(DataOutputStream out, LegTable legs, int row, Map<String, Integer> airportIndexes,
+                                 Map<String, Integer> planeIndexes) throws IOException {
+        Leg leg = legs.toLeg(row);
+        out.writeInt(leg.getFlightNumber());
+        out.writeInt(leg.getBoardingAirport() == null ? NONE : airportIndexes.get(leg.getBoardingAirport().code()));
+        out.writeInt(leg.getDisembarkingAirport() == null ? NONE : airportIndexes.get(leg.getDisembarkingAirport().code()));
+        out.writeInt(legs.boardingMinute(row));
+        out.writeInt(legs.disembarkingMinute(row));
+        out.writeInt((int) leg.getLegDuration().toMinutes());
+        out.writeInt(leg.getReservedCoachSeats());
+        out.writeInt(leg.getReservedFirstClassSeats());
+        out.writeInt(leg.getPlane() == null ? NONE : planeIndexes.get(leg.getPlane().model()));
+        out.writeLong(legs.coachCents(row));
+        out.writeLong(legs.firstClassCents(row));
+    }
+
+    /**
+     * Reads a leg
+     *
+     * @param in The stream of the file
+     * @param allAirports The airports of the file by index
+     * @param allPlanes The planes of the file by index
+     * @return A new leg
+     * @throws IOException If the leg could not be read
+     */
+    private static Leg readLeg(DataInputStream in, List<Airport> allAirports, List<Plane> allPlanes) throws IOException {
+        Leg leg = new Leg();
+        leg.setFlightNumber(in.readInt());
+        int boardingAirport = in.readInt();
+        int disembarkingAirport = in.readInt();
+        leg.setBoardingAirport(boardingAirport == NONE ? null : allAirports.get(boardingAirport));
+        leg.setDisembarkingAirport(disembarkingAirport == NONE ? null : allAirports.get(disembarkingAirport));
+        leg.setBoardingTime(LegTable.timeOf(in.readInt()));
+        leg.setDisembarkingTime(LegTable.timeOf(in.readInt()));
+        leg.setLegDuration(Duration.ofMinutes(in.readInt()));
+        leg.setReservedCoachSeats(in.readInt());
+        leg.setReservedFirstClassSeats(in.readInt());
+        int plane = in.readInt();
+        leg.setPlane(plane == NONE ? null : allPlanes.get(plane));
+        leg.setCoachCents(in.readLong());
+        leg.setFirstClassCents(in.readLong());
+        return leg;
+    }
+}
@@ -3,20 +3,50 @@ package dao;
 import airport.Airport;
 import airport.Airports;
 import leg.Leg;
+import leg.LegTable;
 import leg.Legs;
 import plane.Plane;
 import plane.Planes;
+import utils.Saps;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 /**
  * This class stores and retrieves objects built by the reservation app from server returned XML.
  * In order to reduce server load, this class will track previous requests to get objects
- * to prevent unnecessary calls. In the event that the request has not been made previously
+ * to prevent unnecessary calls. Legs are stored in a LegTable for each airport and date of the request that obtained them. In the event that the request has not been made previously
  * (or is overridden) this class will get new and updated versions of the objects from the ServerInterface.
  *
+ * Access to the stored objects is thread safe so that a parallel flight search can share the database. Each request
+ * for legs stores a future for its legs as soon as it is made, so every caller asking for the same airport and date
+ * while the request is in flight waits on the same future, and only one request is sent to the server. Leg lists
+ * for many airports and dates can be prefetched at once, in which case the requests to the server are all in flight
+ * together.
+ *
+ * Airports and planes are looked up by code, name or model in hash indexes which are rebuilt whenever the airports or
+ * planes are replaced. Each index is replaced as a whole, so a lookup never sees a partly built index.
+ *
+ * The stored objects can be persisted to a file so that the next run starts with them. Each list of airports, planes
+ * or legs is stored with the time it was fetched, and the lists read from the file are used right away while the ones
+ * older than Saps.CACHE_REFRESH_AGE are fetched again in the background. The file is written when the JVM exits and
+ * after each background refresh.
+ *
  * @author Chris Collins
  * @version 1.0 2020-03-26
  * @since 2020-03-26
@@ -28,18 +58,35 @@ public class LocalFlightDatabase {
     private Planes planeList = new Planes();
     /** List of Airport objects obtained from the server */
     private Airports airportList = new Airports();
-    /** List of leg objects obtained from requests the server using boarding info */
-    private final Legs boardingLegList = new Legs();
-    /** List of leg objects obtained from requests the server using disembarking info */
-    private final Legs disembarkingLegList = new Legs();
-
-    /** Container for saving previous requests for legs using boarding info */
-    private class BoardingLegsRequest {
-        private String boardingAirportCode;
-        private String boardingDateString;
-        public BoardingLegsRequest(Airport boardingAirport, LocalDate boardingDate){
-            boardingAirportCode = boardingAirport.code();
-            boardingDateString = boardingDate.toString();
+    /** Airports by upper case code and name, the first airport in the list for each key */
+    private volatile Map<String, Airport> airportIndex = new HashMap<>();
+    /** Planes by upper case model, the first plane in the list for each model */
+    private volatile Map<String, Plane> planeIndex = new HashMap<>();
+    /** Legs requested from the server using boarding info, each group sorted by boarding time */
+    private final Map<LegsRequest, CompletableFuture<LegTable>> boardingLegLists = new ConcurrentHashMap<>();
+    /** Legs requested from the server using disembarking info, each group sorted by disembarking time */
+    private final Map<LegsRequest, CompletableFuture<LegTable>> disembarkingLegLists = new ConcurrentHashMap<>();
+    /** The time each list of boarding legs was fetched, in milliseconds since the epoch */
+    private final Map<LegsRequest, Long> boardingFetchTimes = new ConcurrentHashMap<>();
+    /** The time each list of disembarking legs was fetched, in milliseconds since the epoch */
+    private final Map<LegsRequest, Long> disembarkingFetchTimes = new ConcurrentHashMap<>();
+    /** The time the airports were fetched, in milliseconds since the epoch */
+    private long airportsFetchedAt = 0;
+    /** The time the planes were fetched, in milliseconds since the epoch */
+    private long planesFetchedAt = 0;
+    /** The file the stored objects are persisted to, or null if they are not persisted */
+    private Path cacheFile;
+
+    /** Container for saving previous requests for legs using an airport and date */
+    static class LegsRequest {
+        private final String airportCode;
+        private final LocalDate date;
+        public LegsRequest(Airport airport, LocalDate date){
+            this(airport.code(), date);
+        }
+        public LegsRequest(String airportCode, LocalDate date){
+            this.airportCode = airportCode.toUpperCase(Locale.US);
+            this.date = date;
         }
 
         @Override
@@ -48,44 +95,19 @@ public class LocalFlightDatabase {
             if (obj == this) return true;
             // null not equal to anything
             if (obj == null) return false;
-            // can't be equal if obj is not an instance of BoardingLegsRequest
-            if (!(obj instanceof BoardingLegsRequest)) return false;
+            // can't be equal if obj is not an instance of LegsRequest
+            if (!(obj instanceof LegsRequest)) return false;
             // if all fields are equal, the requests are the same
-            BoardingLegsRequest rhs = (BoardingLegsRequest) obj;
-            return (rhs.boardingAirportCode.equalsIgnoreCase(boardingAirportCode)) &&
-                    (rhs.boardingDateString.equalsIgnoreCase(boardingDateString));
-        }
-    }
-
-    /** Container for saving previous requests for legs using disembarking info */
-    private class DisembarkingLegsRequest {
-        private String disembarkingAirportCode;
-        private String disembarkingDateString;
-        public DisembarkingLegsRequest(Airport disembarkingAirport, LocalDate disembarkingDate){
-            disembarkingAirportCode = disembarkingAirport.code();
-            disembarkingDateString = disembarkingDate.toString();
+            LegsRequest rhs = (LegsRequest) obj;
+            return rhs.airportCode.equals(airportCode) && rhs.date.equals(date);
         }
 
         @Override
-        public boolean equals (Object obj) {
-            // every object is equal to itself
-            if (obj == this) return true;
-            // null not equal to anything
-            if (obj == null) return false;
-            // can't be equal if obj is not an instance of DisembarkingLegsRequest
-            if (!(obj instanceof BoardingLegsRequest)) return false;
-            // if all fields are equal, the requests are the same
-            BoardingLegsRequest rhs = (BoardingLegsRequest) obj;
-            return (rhs.boardingAirportCode.equalsIgnoreCase(disembarkingAirportCode)) &&
-                    (rhs.boardingDateString.equalsIgnoreCase(disembarkingDateString));
+        public int hashCode() {
+            return Objects.hash(airportCode, date);
         }
     }
 
-    /** List of previous leg requests from the server using boarding info */
-    private final List<BoardingLegsRequest> previousLegRequests = new ArrayList<>();
-    /** List of previous leg requests from the server using disembarking info */
-    private final List<DisembarkingLegsRequest> previousDisembarkingLegRequests = new ArrayList<>();
-
     /** Singleton variable */
     private static LocalFlightDatabase single_instance = null;
 
@@ -93,7 +115,7 @@ public class LocalFlightDatabase {
      *
      * @return the active LocalFlightDatabase, or a new one if one is not created
      */
-    public static LocalFlightDatabase getInstance() {
+    public static synchronized LocalFlightDatabase getInstance() {
         if (single_instance == null) {
             single_instance = new LocalFlightDatabase();
         }
@@ -106,11 +128,13 @@ public class LocalFlightDatabase {
      * @return [possibly empty] the list of airports
      * @post Airports from the server are cached in the LocalFlightDatabase
      */
-    public Airports getAirportList(boolean override){
+    public synchronized Airports getAirportList(boolean override){
         // If airports have not been built from the server or an override of the current airport list is requested,
         // get a new list of airports from the server
-        if (airportList.size() == 0 || override)
-                airportList = ServerInterface.INSTANCE.getAirports();
+        if (airportList.size() == 0 || override) {
+            setAirportList(ServerInterface.INSTANCE.getAirports());
+            airportsFetchedAt = System.currentTimeMillis();
+        }
         return airportList;
     }
 
@@ -120,27 +144,115 @@ public class LocalFlightDatabase {
      * @return [possibly empty] the list of planes
      * @post Planes from the server are cached in the LocalFlightDatabase
      */
-    public Planes getPlaneList(boolean override){
+    public synchronized Planes getPlaneList(boolean override){
         // If planes have not been built from the server or an override of the current plane list is requested,
         // get a new list of planes from the server
-        if (planeList.size() == 0 || override)
-            planeList = ServerInterface.INSTANCE.getPlanes();
+        if (planeList.size() == 0 || override) {
+            setPlaneList(ServerInterface.INSTANCE.getPlanes());
+            planesFetchedAt = System.currentTimeMillis();
+        }
         return planeList;
     }
 
+    /** replace the stored airports and rebuild the index of airports by code and name
+     *
+     * @param airports [possibly null] the list of airports, where null is stored as an empty list
+     */
+    private synchronized void setAirportList(Airports airports){
+        airportList = airports == null ? new Airports() : airports;
+        Map<String, Airport> newIndex = new HashMap<>();
+        indexBy(airportList, Airport::code, newIndex);
+        indexBy(airportList, Airport::name, newIndex);
+        airportIndex = newIndex;
+    }
+
+    /** replace the stored planes and rebuild the index of planes by model
+     *
+     * @param planes [possibly null] the list of planes, where null is stored as an empty list
+     */
+    private synchronized void setPlaneList(Planes planes){
+        planeList = planes == null ? new Planes() : planes;
+        Map<String, Plane> newIndex = new HashMap<>();
+        indexBy(planeList, Plane::model, newIndex);
+        planeIndex = newIndex;
+    }
+
+    /** add objects to an index by an upper case key, keeping the first object for each key
+     *
+     * @param objects the objects in order
+     * @param key gets the key of an object
+     * @param index the index to add the objects to
+     * @param <T> the type of the objects
+     */
+    private static <T> void indexBy(List<T> objects, Function<T, String> key, Map<String, T> index){
+        for (T object : objects)
+            index.putIfAbsent(key.apply(object).toUpperCase(Locale.US), object);
+    }
+
+    /** store a list of airports obtained without a request to the server, replacing any stored airports
+     *
+     * @param airports the list of airports
+     * @post Airports are cached in the LocalFlightDatabase
+     */
+    public synchronized void cacheAirports(Airports airports){
+        setAirportList(airports);
+        airportsFetchedAt = System.currentTimeMillis();
+    }
+
+    /** store a list of planes obtained without a request to the server, replacing any stored planes
+     *
+     * @param planes the list of planes
+     * @post Planes are cached in the LocalFlightDatabase
+     */
+    public synchronized void cachePlanes(Planes planes){
+        setPlaneList(planes);
+        planesFetchedAt = System.currentTimeMillis();
+    }
+
+    /** store legs obtained without a request to the server, replacing any stored legs for the same request
+     *
+     * @param boardingAirport the boarding airport of every leg
+     * @param boardingDate the boarding date of every leg
+     * @param legs [possibly empty] the legs which board at the airport on the date
+     * @post Legs are cached in the LocalFlightDatabase as if the request had been made to the server
+     */
+    public void cacheBoardingLegs(Airport boardingAirport, LocalDate boardingDate, Legs legs){
+        LegsRequest request = new LegsRequest(boardingAirport, boardingDate);
+        boardingLegLists.put(request, CompletableFuture.completedFuture(LegTable.byBoardingTime(legs)));
+        boardingFetchTimes.put(request, System.currentTimeMillis());
+    }
+
+    /** store legs obtained without a request to the server, replacing any stored legs for the same request
+     *
+     * @param disembarkingAirport the disembarking airport of every leg
+     * @param disembarkingDate the disembarking date of every leg
+     * @param legs [possibly empty] the legs which disembark at the airport on the date
+     * @post Legs are cached in the LocalFlightDatabase as if the request had been made to the server
+     */
+    public void cacheDisembarkingLegs(Airport disembarkingAirport, LocalDate disembarkingDate, Legs legs){
+        LegsRequest request = new LegsRequest(disembarkingAirport, disembarkingDate);
+        disembarkingLegLists.put(request, CompletableFuture.completedFuture(LegTable.byDisembarkingTime(legs)));
+        disembarkingFetchTimes.put(request, System.currentTimeMillis());
+    }
+
     /** Get an updated version of the leg from the server.
      *
      * This will occur regardless if there is already a saved version of the leg cached.
      *
      * @param oldLeg The leg that needs to be updated with the latest database info
-     * @return [possibly null] the updated version of the leg, or null if the server cannot find a match
+     * @return [possibly null] the updated version of the leg, or null if the server cannot find a match or can not be reached
      * @post Updated legs with the same boarding date and airport are cached in the LocalFlightDatabase
      */
     public Leg getRefreshedLeg(Leg oldLeg){
-        getBoardingLegList(oldLeg.getBoardingAirport(), oldLeg.getBoardingTime().toLocalDate(), true);
-        int newLegIndex = boardingLegList.indexOf(oldLeg);
+        Legs refreshedLegs;
+        try {
+            refreshedLegs = getBoardingLegList(oldLeg.getBoardingAirport(), oldLeg.getBoardingTime().toLocalDate(), true);
+        } catch (CompletionException e) {
+            return null;
+        }
+        int newLegIndex = refreshedLegs.indexOf(oldLeg);
         if (newLegIndex != -1)
-            return boardingLegList.get(newLegIndex);
+            return refreshedLegs.get(newLegIndex);
         else
             return null;
     }
@@ -152,36 +264,12 @@ public class LocalFlightDatabase {
      * @param boardingAirport returned legs must have this boarding airport
      * @param boardingDate returned legs must have this boarding date
      * @param override if true, obtains a new list of legs from the server even if the same request has been previously made
-     * @return [possibly empty] only legs that match the specified boarding airport and boarding date
+     * @return [possibly empty] only legs that match the specified boarding airport and boarding date, sorted by boarding time
+     * @throws CompletionException if the legs could not be obtained from the server
      * @post Legs from the server are cached in the LocalFlightDatabase and the request has been saved for future reference
      */
     public Legs getBoardingLegList(Airport boardingAirport, LocalDate boardingDate, boolean override){
-        Legs requestedLegs = new Legs();
-
-        // Initialize a request to check against previous requests
-        BoardingLegsRequest newRequest = new BoardingLegsRequest(boardingAirport, boardingDate);
-
-        // If no matching request has been made previously, store the request and add the requested legs to the legList
-        if(!previousLegRequests.contains(newRequest)) {
-            previousLegRequests.add(newRequest);
-            requestedLegs = ServerInterface.INSTANCE.getBoardingLegs(boardingAirport, boardingDate);
-        }
-        // Even if a matching request has been made previously, if an ovverride is requested, add the requested legs to the legList
-        else if(override)
-            requestedLegs = ServerInterface.INSTANCE.getBoardingLegs(boardingAirport, boardingDate);
-            // Otherwise, find and return matching legs from the leg list
-        else{
-            for(Leg leg:boardingLegList) {
-                // Verify that the boarding airport and boarding time match the requested ones
-                if (leg.getBoardingAirport().equals(boardingAirport) && leg.getBoardingTime().toLocalDate().equals(boardingDate))
-                    requestedLegs.add(leg);
-            }
-            return requestedLegs;
-        }
-
-        // If new legs have been provided by the server, add them to the leg list and return them
-        addBoardingLegs(requestedLegs);
-        return requestedLegs;
+        return getBoardingLegTable(boardingAirport, boardingDate, override).toLegs();
     }
 
     /** get the list of legs with the specified disembarking airport and disembarking date.
@@ -191,92 +279,385 @@ public class LocalFlightDatabase {
      * @param disembarkingAirport returned legs must have this disembarking airport
      * @param disembarkingDate returned legs must have this disembarking date
      * @param override if true, obtains a new list of legs from the server even if the same request has been previously made
-     * @return [possibly empty] only legs that match the specified disembarking airport and disembarking date
+     * @return [possibly empty] only legs that match the specified disembarking airport and disembarking date, sorted by disembarking time
+     * @throws CompletionException if the legs could not be obtained from the server
      * @post Legs from the server are cached in the LocalFlightDatabase and the request has been saved for future reference
      */
     public Legs getDisembarkingLegList(Airport disembarkingAirport, LocalDate disembarkingDate, boolean override){
-        Legs requestedLegs = new Legs();
+        return getDisembarkingLegTable(disembarkingAirport, disembarkingDate, override).toLegs();
+    }
 
-        // Initialize a request to check against previous requests
-        DisembarkingLegsRequest newRequest = new DisembarkingLegsRequest(disembarkingAirport, disembarkingDate);
+    /** obtain every list of legs with the specified boarding airports and boarding dates that is not already in storage.
+     *
+     * The requests to the server are made concurrently, and this method returns once all of them have completed.
+     * Requests which fail are not stored, so they are made again when their legs are needed.
+     *
+     * @param requests the boarding dates of legs to obtain for each boarding airport
+     * @post Legs from the server are cached in the LocalFlightDatabase and the requests have been saved for future reference
+     */
+    public void prefetchBoardingLegs(Map<Airport, Set<LocalDate>> requests){
+        List<CompletableFuture<LegTable>> fetches = new ArrayList<>();
+        for (Map.Entry<Airport, Set<LocalDate>> airportRequests : requests.entrySet()) {
+            Airport boardingAirport = airportRequests.getKey();
+            for (LocalDate boardingDate : airportRequests.getValue())
+                fetches.add(requestBoardingLegs(boardingAirport, boardingDate, false));
+        }
+        joinIgnoringFailures(fetches);
+    }
 
-        // If no matching request has been made previously, store the request and add the requested legs to the legList
-        if(!previousDisembarkingLegRequests.contains(newRequest)) {
-            previousDisembarkingLegRequests.add(newRequest);
-            requestedLegs = ServerInterface.INSTANCE.getDisembarkingLegs(disembarkingAirport, disembarkingDate);
+    /** obtain every list of legs with the specified disembarking airports and disembarking dates that is not already in storage.
+     *
+     * The requests to the server are made concurrently, and this method returns once all of them have completed.
+     * Requests which fail are not stored, so they are made again when their legs are needed.
+     *
+     * @param requests the disembarking dates of legs to obtain for each disembarking airport
+     * @post Legs from the server are cached in the LocalFlightDatabase and the requests have been saved for future reference
+     */
+    public void prefetchDisembarkingLegs(Map<Airport, Set<LocalDate>> requests){
+        List<CompletableFuture<LegTable>> fetches = new ArrayList<>();
+        for (Map.Entry<Airport, Set<LocalDate>> airportRequests : requests.entrySet()) {
+            Airport disembarkingAirport = airportRequests.getKey();
+            for (LocalDate disembarkingDate : airportRequests.getValue())
+                fetches.add(requestDisembarkingLegs(disembarkingAirport, disembarkingDate, false));
         }
-        // Even if a matching request has been made previously, if an ovverride is requested, add the requested legs to the legList
-        else if(override)
-            requestedLegs = ServerInterface.INSTANCE.getDisembarkingLegs(disembarkingAirport, disembarkingDate);
-            // Otherwise, find and return matching legs from the leg list
-        else{
-            for(Leg leg:disembarkingLegList) {
-                // Verify that the boarding airport and boarding time match the requested ones
-                if (leg.getDisembarkingAirport().equals(disembarkingAirport) && leg.getDisembarkingTime().toLocalDate().equals(disembarkingDate))
-                    requestedLegs.add(leg);
-            }
-            return requestedLegs;
+        joinIgnoringFailures(fetches);
+    }
+
+    /** get the table of legs with the specified boarding airport and boarding date.
+     *
+     * If the legs are not already in storage, obtain them from the server database. The stored table is shared, so
+     * no legs are copied.
+     *
+     * @param boardingAirport the boarding airport of the legs
+     * @param boardingDate the boarding date of the legs
+     * @param override if true, obtains a new list of legs from the server even if the same request has been previously made
+     * @return [possibly empty] the legs sorted by boarding time
+     * @throws CompletionException if the legs could not be obtained from the server, in which case the request is
+     *                             not stored and is made again by the next caller
+     * @post Legs from the server are cached in the LocalFlightDatabase and the request has been saved for future reference
+     */
+    public LegTable getBoardingLegTable(Airport boardingAirport, LocalDate boardingDate, boolean override){
+        return requestBoardingLegs(boardingAirport, boardingDate, override).join();
+    }
+
+    /** get the table of legs with the specified disembarking airport and disembarking date.
+     *
+     * If the legs are not already in storage, obtain them from the server database. The stored table is shared, so
+     * no legs are copied.
+     *
+     * @param disembarkingAirport the disembarking airport of the legs
+     * @param disembarkingDate the disembarking date of the legs
+     * @param override if true, obtains a new list of legs from the server even if the same request has been previously made
+     * @return [possibly empty] the legs sorted by disembarking time
+     * @throws CompletionException if the legs could not be obtained from the server, in which case the request is
+     *                             not stored and is made again by the next caller
+     * @post Legs from the server are cached in the LocalFlightDatabase and the request has been saved for future reference
+     */
+    public LegTable getDisembarkingLegTable(Airport disembarkingAirport, LocalDate disembarkingDate, boolean override){
+        return requestDisembarkingLegs(disembarkingAirport, disembarkingDate, override).join();
+    }
+
+    /** wait for requests for legs to complete, whether or not they succeed
+     *
+     * @param fetches the requests
+     */
+    private static void joinIgnoringFailures(List<CompletableFuture<LegTable>> fetches){
+        try {
+            CompletableFuture.allOf(fetches.toArray(new CompletableFuture<?>[0])).join();
+        } catch (CompletionException e) {
+            // Failed requests have been removed, and are made again by the next caller that needs their legs
         }
+    }
 
-        // If new legs have been provided by the server, add them to the leg list and return them
-        addDisembarkingLegs(requestedLegs);
-        return requestedLegs;
+    /** request the legs with the specified boarding airport and boarding date
+     *
+     * @param boardingAirport the boarding airport of the legs
+     * @param boardingDate the boarding date of the legs
+     * @param override if true, obtains a new list of legs from the server even if the same request has been previously made
+     * @return the future legs sorted by boarding time, which completes exceptionally if the legs could not be obtained
+     */
+    public CompletableFuture<LegTable> requestBoardingLegs(Airport boardingAirport, LocalDate boardingDate, boolean override){
+        return requestLegs(boardingLegLists, boardingFetchTimes, new LegsRequest(boardingAirport, boardingDate), override,
+                () -> ServerInterface.INSTANCE.getBoardingLegsAsync(boardingAirport, boardingDate)
+                        .thenApply(LegTable::byBoardingTime));
     }
 
-    /** get the airport object who's name or code matches the specified String
+    /** request the legs with the specified disembarking airport and disembarking date
      *
-     * @param airportString airport name or airport code (case insensitive)
+     * @param disembarkingAirport the disembarking airport of the legs
+     * @param disembarkingDate the disembarking date of the legs
+     * @param override if true, obtains a new list of legs from the server even if the same request has been previously made
+     * @return the future legs sorted by disembarking time, which completes exceptionally if the legs could not be obtained
+     */
+    public CompletableFuture<LegTable> requestDisembarkingLegs(Airport disembarkingAirport, LocalDate disembarkingDate, boolean override){
+        return requestLegs(disembarkingLegLists, disembarkingFetchTimes, new LegsRequest(disembarkingAirport, disembarkingDate), override,
+                () -> ServerInterface.INSTANCE.getDisembarkingLegsAsync(disembarkingAirport, disembarkingDate)
+                        .thenApply(LegTable::byDisembarkingTime));
+    }
+
+    /** get the stored future for a request for legs, making a single request to the server if needed
      *
-     * @return [possibly null] the airport object which matches the specified string, or null if no matches
+     * The future is stored before the request to the server is sent, so that concurrent callers share the request.
+     * An override waits on a request which is still in flight instead of sending another one, since the legs it
+     * returns are no older than the legs a new request would return. A request which fails is removed so that it
+     * can be made again, and its future is completed exceptionally instead of with an empty list of legs.
+     *
+     * @param legLists the stored boarding or disembarking legs
+     * @param fetchTimes the times the stored legs were fetched
+     * @param request the airport and date of the legs
+     * @param override if true, replaces a completed request with a new request to the server
+     * @param fetch sends the request to the server
+     * @return the future legs for the request
      */
-    public Airport getAirportFromString(String airportString){
-        for(Airport apt : getAirportList(false)){
-            if(airportString.compareToIgnoreCase(apt.name()) == 0 || airportString.compareToIgnoreCase(apt.code()) == 0)
-                return apt;
+    static CompletableFuture<LegTable> requestLegs(Map<LegsRequest, CompletableFuture<LegTable>> legLists,
+                                                   Map<LegsRequest, Long> fetchTimes, LegsRequest request, boolean override,
+                                                   Supplier<CompletableFuture<LegTable>> fetch){
+        CompletableFuture<LegTable> newLegs = new CompletableFuture<>();
+        CompletableFuture<LegTable> storedLegs;
+        if (override)
+            storedLegs = legLists.compute(request, (key, oldLegs) -> oldLegs != null && !oldLegs.isDone() ? oldLegs : newLegs);
+        else
+            storedLegs = legLists.computeIfAbsent(request, key -> newLegs);
+
+        // Only the caller that stored the new future sends the request to the server
+        if (storedLegs == newLegs) {
+            fetch.get().whenComplete((legs, exception) -> {
+                if (exception == null) {
+                    fetchTimes.put(request, System.currentTimeMillis());
+                    newLegs.complete(legs);
+                } else {
+                    legLists.remove(request, newLegs);
+                    newLegs.completeExceptionally(exception);
+                }
+            });
         }
-        return null;
+        return storedLegs;
     }
 
-    /** get the plane object who's model matches the specified String
+    /** persist the stored objects to a file, starting with the objects already stored in the file.
      *
-     * @param planeString plane model (case insensitive)
+     * Lists in the file are stored unless the same list has already been stored. The lists older than
+     * Saps.CACHE_REFRESH_AGE are fetched again from the server in the background, and the file is written when the
+     * JVM exits. A file that can not be read is ignored and replaced. Calling this again loads the new file and writes
+     * the stored objects to it instead, without starting another refresh.
      *
-     * @return [possibly null] the plane object which matches the specified string, or null if no matches
+     * @param file the file to read and write the stored objects
+     * @post The lists in the file are cached in the LocalFlightDatabase
      */
-    public Plane getPlaneFromModel(String planeString){
-        for(Plane plane : getPlaneList(false)){
-            if(planeString.compareToIgnoreCase(plane.model()) == 0)
-                return plane;
+    public void persistTo(Path file){
+        boolean isFirstFile;
+        synchronized (this) {
+            isFirstFile = cacheFile == null;
+            cacheFile = file;
+        }
+
+        if (Files.exists(file)) {
+            try {
+                loadCache(LegCacheFile.read(file));
+            } catch (IOException e) {
+                System.out.println("Ignoring leg cache: " + e.getMessage());
+            }
+        }
+
+        // The hook and the refresher save to whichever file was given last, so they are only started once
+        if (!isFirstFile) return;
+        Runtime.getRuntime().addShutdownHook(new Thread(this::saveCache, "leg-cache-save"));
+        Thread refresher = new Thread(() -> refreshOlderThan(Saps.CACHE_REFRESH_AGE), "leg-cache-refresh");
+        refresher.setDaemon(true);
+        refresher.start();
+    }
+
+    /** write the stored objects to the file they are persisted to.
+     *
+     * Only lists of legs whose request has completed are written. Nothing is written if persistTo has not been called.
+     *
+     * @post The file holds the airports, planes and legs stored in the LocalFlightDatabase
+     */
+    public void saveCache(){
+        Path file;
+        LegCacheFile contents;
+        synchronized (this) {
+            if (cacheFile == null) return;
+            file = cacheFile;
+            List<LegCacheFile.Entry> entries = new ArrayList<>();
+            addCompletedEntries(true, boardingLegLists, boardingFetchTimes, entries);
+            addCompletedEntries(false, disembarkingLegLists, disembarkingFetchTimes, entries);
+            contents = new LegCacheFile(airportList, airportsFetchedAt, planeList, planesFetchedAt, entries);
+        }
+
+        // Only one thread writes the file at a time
+        synchronized (LegCacheFile.class) {
+            try {
+                contents.write(file);
+            } catch (IOException e) {
+                System.out.println("Could not save leg cache: " + e.getMessage());
+            }
+        }
+    }
+
+    /** store the lists read from a cache file which have not already been stored
+     *
+     * @param contents the contents of the file
+     * @post The lists are cached in the LocalFlightDatabase with the times they were fetched
+     */
+    private synchronized void loadCache(LegCacheFile contents){
+        if (airportList.size() == 0 && contents.airports.size() != 0) {
+            setAirportList(contents.airports);
+            airportsFetchedAt = contents.airportsFetchedAt;
+        }
+        if (planeList.size() == 0 && contents.planes.size() != 0) {
+            setPlaneList(contents.planes);
+            planesFetchedAt = contents.planesFetchedAt;
+        }
+        for (LegCacheFile.Entry entry : contents.entries) {
+            LegsRequest request = new LegsRequest(entry.airportCode, entry.date);
+            Map<LegsRequest, CompletableFuture<LegTable>> legLists = entry.isBoarding ? boardingLegLists : disembarkingLegLists;
+            if (legLists.putIfAbsent(request, CompletableFuture.completedFuture(entry.legs)) == null)
+                (entry.isBoarding ? boardingFetchTimes : disembarkingFetchTimes).put(request, entry.fetchedAt);
         }
-        return null;
     }
 
-    /** add new legs to the boardingLegList, while removing any duplicate old legs
+    /** add the lists of legs whose request has completed to the entries of a cache file
      *
-     * @param potentialLegs [possibly empty] list of new legs to add to the leg list
-     * @post New Legs from the server are cached in the LocalFlightDatabase and old duplicates are removed
+     * @param isBoarding true if the lists are boarding legs, false if they are disembarking legs
+     * @param legLists the stored boarding or disembarking legs
+     * @param fetchTimes the times the stored legs were fetched
+     * @param entries the entries of the file
      */
-    /// Can unique be implemented at the list side?
-    private void addBoardingLegs(Legs potentialLegs){
-        for(Leg leg: potentialLegs){
-            // For each leg in the new list, make sure there is no old version on the current list
-            //      Note: Equality is currently determined only by flight number (overriden in the Leg class, as number of reserved seats may change)
-            boardingLegList.remove(leg);
-            boardingLegList.add(leg);
+    private static void addCompletedEntries(boolean isBoarding, Map<LegsRequest, CompletableFuture<LegTable>> legLists,
+                                            Map<LegsRequest, Long> fetchTimes, List<LegCacheFile.Entry> entries){
+        for (Map.Entry<LegsRequest, CompletableFuture<LegTable>> legList : legLists.entrySet()) {
+            CompletableFuture<LegTable> legs = legList.getValue();
+            if (!legs.isDone() || legs.isCompletedExceptionally()) continue;
+            LegsRequest request = legList.getKey();
+            entries.add(new LegCacheFile.Entry(isBoarding, request.airportCode, request.date,
+                    fetchTimes.getOrDefault(request, 0L), legs.join()));
         }
     }
 
-    /** add new legs to the disembarkingLegList, while removing any duplicate old legs
+    /** fetch every stored list again that was fetched longer ago than an age, then write the cache file.
+     *
+     * The old lists are used until the new ones arrive. Legs are fetched Saps.SEARCH_PARALLELISM lists at a time so
+     * that the refresh does not crowd out the requests of a search.
      *
-     * @param potentialLegs [possibly empty] list of new legs to add to the leg list
-     * @post Legs from the server are cached in the LocalFlightDatabase and old duplicates are removed
+     * @param maxAge the age after which a list is fetched again
+     * @post Old lists in the LocalFlightDatabase are replaced with lists from the server
      */
-    private void addDisembarkingLegs(Legs potentialLegs){
-        for(Leg leg: potentialLegs){
-            // For each leg in the new list, make sure there is no old version on the current list
-            //      Note: Equality is currently determined only by flight number (overriden in the Leg class, as number of reserved seats may change)
-            disembarkingLegList.remove(leg);
-            disembarkingLegList.add(leg);
+    private void refreshOlderThan(Duration maxAge){
+        long oldestTime = System.currentTimeMillis() - maxAge.toMillis();
+        boolean isRefreshed = false;
+
+        Airports oldAirports;
+        synchronized (this) {
+            oldAirports = airportList;
+            isRefreshed |= airportList.size() != 0 && airportsFetchedAt < oldestTime;
+            isRefreshed |= planeList.size() != 0 && planesFetchedAt < oldestTime;
+        }
+        if (isRefreshed) {
+            Airports airports = ServerInterface.INSTANCE.getAirports();
+            Planes planes = ServerInterface.INSTANCE.getPlanes();
+            synchronized (this) {
+                if (airports != null) cacheAirports(airports);
+                if (planes != null) cachePlanes(planes);
+            }
+        }
+
+        // Airports are matched by code, so legs of airports which are no longer listed can still be fetched
+        Map<String, Airport> airportsByCode = new HashMap<>();
+        for (Airport airport : oldAirports)
+            airportsByCode.put(airport.code().toUpperCase(Locale.US), airport);
+
+        List<CompletableFuture<Void>> fetches = new ArrayList<>();
+        for (Map.Entry<LegsRequest, Long> fetchTime : boardingFetchTimes.entrySet()) {
+            if (fetchTime.getValue() >= oldestTime) continue;
+            LegsRequest request = fetchTime.getKey();
+            Airport airport = airportFor(request, airportsByCode);
+            fetches.add(refreshLegs(boardingLegLists, boardingFetchTimes, request,
+                    () -> ServerInterface.INSTANCE.getBoardingLegsAsync(airport, request.date).thenApply(LegTable::byBoardingTime)));
+            joinWhenFull(fetches);
+            isRefreshed = true;
+        }
+        for (Map.Entry<LegsRequest, Long> fetchTime : disembarkingFetchTimes.entrySet()) {
+            if (fetchTime.getValue() >= oldestTime) continue;
+            LegsRequest request = fetchTime.getKey();
+            Airport airport = airportFor(request, airportsByCode);
+            fetches.add(refreshLegs(disembarkingLegLists, disembarkingFetchTimes, request,
+                    () -> ServerInterface.INSTANCE.getDisembarkingLegsAsync(airport, request.date).thenApply(LegTable::byDisembarkingTime)));
+            joinWhenFull(fetches);
+            isRefreshed = true;
         }
+        CompletableFuture.allOf(fetches.toArray(new CompletableFuture<?>[0])).join();
+
+        if (isRefreshed) saveCache();
+    }
+
+    /** fetch a stored list of legs again, keeping the stored list until the new one arrives
+     *
+     * @param legLists the stored boarding or disembarking legs
+     * @param fetchTimes the times the stored legs were fetched
+     * @param request the airport and date of the legs
+     * @param fetch sends the request to the server
+     * @return a future completed once the list has been replaced, or left as it is if the request failed
+     */
+    private static CompletableFuture<Void> refreshLegs(Map<LegsRequest, CompletableFuture<LegTable>> legLists,
+                                                       Map<LegsRequest, Long> fetchTimes, LegsRequest request,
+                                                       Supplier<CompletableFuture<LegTable>> fetch){
+        return fetch.get().handle((legs, exception) -> {
+            if (exception == null) {
+                legLists.put(request, CompletableFuture.completedFuture(legs));
+                fetchTimes.put(request, System.currentTimeMillis());
+            }
+            return null;
+        });
+    }
+
+    /** wait for a batch of refreshes once it is full
+     *
+     * @param fetches the refreshes in flight, which are removed once they are complete
+     */
+    private static void joinWhenFull(List<CompletableFuture<Void>> fetches){
+        if (fetches.size() < Saps.SEARCH_PARALLELISM) return;
+        CompletableFuture.allOf(fetches.toArray(new CompletableFuture<?>[0])).join();
+        fetches.clear();
+    }
+
+    /** get the airport of a request for legs
+     *
+     * @param request the airport and date of the legs
+     * @param airportsByCode the stored airports by upper case code
+     * @return the stored airport with the code of the request, or a new airport with only the code
+     */
+    private static Airport airportFor(LegsRequest request, Map<String, Airport> airportsByCode){
+        Airport airport = airportsByCode.get(request.airportCode);
+        if (airport != null) return airport;
+        airport = new Airport();
+        airport.code(request.airportCode);
+        return airport;
+    }
+
+    /** get the airport object who's name or code matches the specified String
+     *
+     * @param airportString airport name or airport code (case insensitive)
+     *
+     * @return [possibly null] the airport object which matches the specified string, or null if no matches
+     */
+    public Airport getAirportFromString(String airportString){
+        if (airportString == null) return null;
+        // Obtain the airports from the server the first time they are needed
+        if (airportIndex.isEmpty()) getAirportList(false);
+        return airportIndex.get(airportString.toUpperCase(Locale.US));
+    }
+
+    /** get the plane object who's model matches the specified String
+     *
+     * @param planeString plane model (case insensitive)
+     *
+     * @return [possibly null] the plane object which matches the specified string, or null if no matches
+     */
+    public Plane getPlaneFromModel(String planeString){
+        if (planeString == null) return null;
+        // Obtain the planes from the server the first time they are needed
+        if (planeIndex.isEmpty()) getPlaneList(false);
+        return planeIndex.get(planeString.toUpperCase(Locale.US));
     }
 }
@@ -2,8 +2,15 @@ package dao;
 
 import java.io.*;
 import java.net.HttpURLConnection;
+import java.net.URI;
 import java.net.URL;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
 import java.time.*;
+import java.util.concurrent.CompletableFuture;
+
+import javax.xml.stream.XMLStreamException;
 
 import airport.Airport;
 import airport.Airports;
@@ -16,6 +23,10 @@ import utils.Saps;
 /**
  * This class provides an interface to the CS509 server.
  * It provides methods to perform HTTP GET and HTTP POSTS
+ *
+ * GET requests share a single HTTP client which pools connections to the server. Each GET has a blocking
+ * version and a version returning a CompletableFuture, so that many requests can be in flight at once. Legs are
+ * parsed directly from the response stream as it arrives.
  *   
  * @author Blake Nelson
  * @version 1.0 2020-03-26
@@ -25,6 +36,12 @@ import utils.Saps;
 public enum ServerInterface {
 	INSTANCE;
 
+	/** Client shared by every GET request so that connections to the server are pooled and reused */
+	private final HttpClient client = HttpClient.newBuilder()
+			.version(HttpClient.Version.HTTP_1_1)
+			.connectTimeout(Saps.SERVER_CONNECT_TIMEOUT)
+			.build();
+
 	/**
 	 * Return a collection of all the airports from server.
 	 * 
@@ -33,45 +50,27 @@ public enum ServerInterface {
 	 * @return collection of Airports from server or null if error.
 	 */
 	public Airports getAirports () {
-
-		URL url;
-		HttpURLConnection connection;
-		BufferedReader reader;
-		String line;
-		StringBuilder result = new StringBuilder();
-		
-		String xmlAirports;
-		Airports airports;
-
 		try {
 			// QueryFactory provides the parameter annotations for the HTTP GET query string
-			url = new URL(Saps.SERVER_URL + QueryFactory.getAirportsQuery());
-
-			// Create an HTTP connection to the server for a GET
-			connection = (HttpURLConnection) url.openConnection();
-			connection.setRequestMethod("GET");
-			connection.setRequestProperty("User-Agent", Saps.TEAM_NAME);
-
-			// If response code of SUCCESS read the XML string returned
-			// line by line to build the full return string
-			int responseCode = connection.getResponseCode();
-			if (responseCode >= HttpURLConnection.HTTP_OK) {
-				InputStream inputStream = connection.getInputStream();
-
-				reader = new BufferedReader(new InputStreamReader(inputStream));
-				while ((line = reader.readLine()) != null) {
-					result.append(line);
-				}
-				reader.close();
-			}
+			return DaoAirport.addAll(get(QueryFactory.getAirportsQuery()));
 		} catch (Exception e) {
 			e.printStackTrace();
 			return null;
 		}
+	}
 
-		xmlAirports = result.toString();
-		airports = DaoAirport.addAll(xmlAirports);
-		return airports;
+	/**
+	 * Request a collection of all the airports from server without waiting for the response.
+	 *
+	 * @return future collection of Airports from server, completed with null if error.
+	 */
+	public CompletableFuture<Airports> getAirportsAsync () {
+		return getAsync(QueryFactory.getAirportsQuery())
+				.thenApply(DaoAirport::addAll)
+				.exceptionally(e -> {
+					e.printStackTrace();
+					return null;
+				});
 	}
 
 	/**
@@ -82,45 +81,27 @@ public enum ServerInterface {
 	 * @return collection of Planes from server or null if error.
 	 */
 	public Planes getPlanes () {
-
-		URL url;
-		HttpURLConnection connection;
-		BufferedReader reader;
-		String line;
-		StringBuilder result = new StringBuilder();
-
-		String xmlPlanes;
-		Planes planes;
-
 		try {
 			// QueryFactory provides the parameter annotations for the HTTP GET query string
-			url = new URL(Saps.SERVER_URL + QueryFactory.getPlanesQuery());
-
-			// Create an HTTP connection to the server for a GET
-			connection = (HttpURLConnection) url.openConnection();
-			connection.setRequestMethod("GET");
-			connection.setRequestProperty("User-Agent", Saps.TEAM_NAME);
-
-			//If response code of SUCCESS read the XML string returned
-			// line by line to build the full return string
-			int responseCode = connection.getResponseCode();
-			if (responseCode >= HttpURLConnection.HTTP_OK) {
-				InputStream inputStream = connection.getInputStream();
-
-				reader = new BufferedReader(new InputStreamReader(inputStream));
-				while ((line = reader.readLine()) != null) {
-					result.append(line);
-				}
-				reader.close();
-			}
+			return DaoPlane.addAll(get(QueryFactory.getPlanesQuery()));
 		} catch (Exception e) {
 			e.printStackTrace();
 			return null;
 		}
+	}
 
-		xmlPlanes = result.toString();
-		planes = DaoPlane.addAll(xmlPlanes);
-		return planes;
+	/**
+	 * Request a collection of all the planes from server without waiting for the response.
+	 *
+	 * @return future collection of Planes from server, completed with null if error.
+	 */
+	public CompletableFuture<Planes> getPlanesAsync () {
+		return getAsync(QueryFactory.getPlanesQuery())
+				.thenApply(DaoPlane::addAll)
+				.exceptionally(e -> {
+					e.printStackTrace();
+					return null;
+				});
 	}
 
 	/**
@@ -133,44 +114,26 @@ public enum ServerInterface {
 	 * @return [possibly empty] collection of Legs from server.
 	 */
 	public Legs getBoardingLegs(Airport boardingAirport, LocalDate boardingDate) {
-		URL url;
-		HttpURLConnection connection;
-		BufferedReader reader;
-		String line;
-		StringBuilder result = new StringBuilder();
-
-		String xmlBoardingLegs;
-		Legs boardingLegs;
-
 		try {
 			// QueryFactory provides the parameter annotations for the HTTP GET query string
-			url = new URL(Saps.SERVER_URL + QueryFactory.getBoardingLegsQuery(boardingAirport, boardingDate));
-
-			// Create an HTTP connection to the server for a GET
-			connection = (HttpURLConnection) url.openConnection();
-			connection.setRequestMethod("GET");
-			connection.setRequestProperty("User-Agent", Saps.TEAM_NAME);
-
-			//If response code of SUCCESS read the XML string returned
-			//line by line to build the full return string
-			int responseCode = connection.getResponseCode();
-			if (responseCode >= HttpURLConnection.HTTP_OK) {
-				InputStream inputStream = connection.getInputStream();
-
-				reader = new BufferedReader(new InputStreamReader(inputStream));
-				while ((line = reader.readLine()) != null) {
-					result.append(line);
-				}
-				reader.close();
-			}
+			return parseLegs(getStream(QueryFactory.getBoardingLegsQuery(boardingAirport, boardingDate)));
 		} catch (Exception e) {
 			e.printStackTrace();
 			return new Legs();
 		}
+	}
 
-		xmlBoardingLegs = result.toString();
-		boardingLegs = DaoLeg.addAll(xmlBoardingLegs);
-		return boardingLegs;
+	/**
+	 * Request a collection of legs from server which board at a given airport and date without waiting for the response.
+	 *
+	 * @param boardingAirport the boarding Airport for requested legs
+	 * @param boardingDate the date of boarding for requested legs
+	 * @return future [possibly empty] collection of Legs from server, completed exceptionally if the request fails
+	 * or the response can not be read, so that a failed request is never mistaken for a day without legs.
+	 */
+	public CompletableFuture<Legs> getBoardingLegsAsync(Airport boardingAirport, LocalDate boardingDate) {
+		return getStreamAsync(QueryFactory.getBoardingLegsQuery(boardingAirport, boardingDate))
+				.thenApply(this::parseLegs);
 	}
 
 	/**
@@ -183,44 +146,146 @@ public enum ServerInterface {
 	 * @return [possibly empty] collection of Legs from server.
 	 */
 	public Legs getDisembarkingLegs(Airport disembarkingAirport, LocalDate disembarkingDate) {
-		URL url;
-		HttpURLConnection connection;
-		BufferedReader reader;
-		String line;
-		StringBuilder result = new StringBuilder();
+		try {
+			// QueryFactory provides the parameter annotations for the HTTP GET query string
+			return parseLegs(getStream(QueryFactory.getDisembarkingLegsQuery(disembarkingAirport, disembarkingDate)));
+		} catch (Exception e) {
+			e.printStackTrace();
+			return new Legs();
+		}
+	}
+
+	/**
+	 * Request a collection of legs from server which disembark at a given airport and date without waiting for the response.
+	 *
+	 * @param disembarkingAirport the disembarking Airport for requested legs
+	 * @param disembarkingDate the date of disembarking for requested legs
+	 * @return future [possibly empty] collection of Legs from server, completed exceptionally if the request fails
+	 * or the response can not be read, so that a failed request is never mistaken for a day without legs.
+	 */
+	public CompletableFuture<Legs> getDisembarkingLegsAsync(Airport disembarkingAirport, LocalDate disembarkingDate) {
+		return getStreamAsync(QueryFactory.getDisembarkingLegsQuery(disembarkingAirport, disembarkingDate))
+				.thenApply(this::parseLegs);
+	}
+
+	/**
+	 * Build an HTTP GET request for the server.
+	 *
+	 * @param query the query string provided by the QueryFactory
+	 * @return the request for the server
+	 */
+	private HttpRequest buildGetRequest(String query) {
+		return HttpRequest.newBuilder(URI.create(Saps.SERVER_URL + query))
+				.header("User-Agent", Saps.TEAM_NAME)
+				.GET()
+				.build();
+	}
 
-		String xmlDisembarkingLegs;
-		Legs disembarkingLegs;
+	/**
+	 * Perform an HTTP GET on the server and wait for the XML string returned.
+	 *
+	 * @param query the query string provided by the QueryFactory
+	 * @return the XML string returned by the server
+	 * @throws IOException if the server could not be reached
+	 * @throws UncheckedIOException if the request was not successful
+	 * @throws InterruptedException if interrupted while waiting for the response
+	 */
+	private String get(String query) throws IOException, InterruptedException {
+		HttpResponse<String> response = client.send(buildGetRequest(query), HttpResponse.BodyHandlers.ofString());
+		return readResponse(response);
+	}
 
+	/**
+	 * Perform an HTTP GET on the server without waiting for the XML string returned.
+	 *
+	 * @param query the query string provided by the QueryFactory
+	 * @return the future XML string returned by the server, completed exceptionally if the request was not successful
+	 */
+	private CompletableFuture<String> getAsync(String query) {
 		try {
-			// QueryFactory provides the parameter annotations for the HTTP GET query string
-			url = new URL(Saps.SERVER_URL + QueryFactory.getDisembarkingLegsQuery(disembarkingAirport, disembarkingDate));
+			return client.sendAsync(buildGetRequest(query), HttpResponse.BodyHandlers.ofString())
+					.thenApply(this::readResponse);
+		} catch (IllegalArgumentException e) {
+			return CompletableFuture.failedFuture(e);
+		}
+	}
 
-			//Create an HTTP connection to the server for a GET
-			connection = (HttpURLConnection) url.openConnection();
-			connection.setRequestMethod("GET");
-			connection.setRequestProperty("User-Agent", Saps.TEAM_NAME);
+	/**
+	 * Read the XML string from a server response.
+	 *
+	 * @param response the response from the server
+	 * @return the XML string if the response code is SUCCESS
+	 * @throws UncheckedIOException if the response code is not SUCCESS
+	 */
+	private String readResponse(HttpResponse<String> response) {
+		int status = response.statusCode();
+		if (status >= HttpURLConnection.HTTP_OK && status < HttpURLConnection.HTTP_MULT_CHOICE)
+			return response.body();
+		throw new UncheckedIOException(new IOException("Server returned HTTP " + status));
+	}
 
-			//If response code of SUCCESS read the XML string returned
-			//line by line to build the full return string
-			int responseCode = connection.getResponseCode();
-			if (responseCode >= HttpURLConnection.HTTP_OK) {
-				InputStream inputStream = connection.getInputStream();
+	/**
+	 * Perform an HTTP GET on the server and wait for the start of the XML stream returned.
+	 *
+	 * @param query the query string provided by the QueryFactory
+	 * @return the XML stream returned by the server
+	 * @throws IOException if the server could not be reached
+	 * @throws InterruptedException if interrupted while waiting for the response
+	 */
+	private InputStream getStream(String query) throws IOException, InterruptedException {
+		HttpResponse<InputStream> response = client.send(buildGetRequest(query), HttpResponse.BodyHandlers.ofInputStream());
+		return readStreamResponse(response);
+	}
 
-				reader = new BufferedReader(new InputStreamReader(inputStream));
-				while ((line = reader.readLine()) != null) {
-					result.append(line);
-				}
-				reader.close();
-			}
-		} catch (Exception e) {
+	/**
+	 * Perform an HTTP GET on the server without waiting for the XML stream returned.
+	 *
+	 * @param query the query string provided by the QueryFactory
+	 * @return the future XML stream returned by the server, completed exceptionally if the request was not successful
+	 */
+	private CompletableFuture<InputStream> getStreamAsync(String query) {
+		try {
+			return client.sendAsync(buildGetRequest(query), HttpResponse.BodyHandlers.ofInputStream())
+					.thenApply(this::readStreamResponse);
+		} catch (IllegalArgumentException e) {
+			return CompletableFuture.failedFuture(e);
+		}
+	}
+
+	/**
+	 * Read the XML stream from a server response.
+	 *
+	 * @param response the response from the server
+	 * @return the XML stream if the response code is SUCCESS
+	 * @throws UncheckedIOException if the response code is not SUCCESS
+	 */
+	private InputStream readStreamResponse(HttpResponse<InputStream> response) {
+		int status = response.statusCode();
+		if (status >= HttpURLConnection.HTTP_OK && status < HttpURLConnection.HTTP_MULT_CHOICE)
+			return response.body();
+		try {
+			response.body().close();
+		} catch (IOException e) {
 			e.printStackTrace();
-			return new Legs();
 		}
+		throw new UncheckedIOException(new IOException("Server returned HTTP " + status));
+	}
 
-		xmlDisembarkingLegs = result.toString();
-		disembarkingLegs = DaoLeg.addAll(xmlDisembarkingLegs);
-		return disembarkingLegs;
+	/**
+	 * Build legs from an XML stream as it is read, then close the stream.
+	 *
+	 * @param xmlLegs the XML stream returned by the server
+	 * @return [possibly empty] collection of Legs from the stream
+	 * @throws UncheckedIOException if the stream could not be read to the end or is not valid XML
+	 */
+	private Legs parseLegs(InputStream xmlLegs) {
+		try (InputStream stream = xmlLegs) {
+			return DaoLeg.readAll(stream);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		} catch (XMLStreamException e) {
+			throw new UncheckedIOException(new IOException(e));
+		}
 	}
 
 	/**
@@ -0,0 +1,151 @@
+package dao;
+
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.transform.OutputKeys;
+import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerConfigurationException;
+import javax.xml.transform.TransformerFactory;
+
+/**
+ * The parsers, writers and formats shared by the data access objects.
+ *
+ * Looking up an XML factory scans the classpath for an implementation, which costs more than parsing a small server
+ * response, so each factory is looked up once. The StAX factories are thread-safe once configured and are shared.
+ * DocumentBuilders and Transformers are not thread-safe, so each thread reuses its own, which is reset before it is
+ * handed out. Formats are immutable and shared.
+ *
+ * Prices are read with parseCents instead of a currency NumberFormat, which is neither thread-safe nor cheap to
+ * create.
+ *
+ * @author agent
+ * @version 1.0 2026-10-18
+ * @since 2026-10-18
+ *
+ */
+final class XmlContext {
+    /** Factory for the readers of legs, which is thread-safe once configured */
+    static final XMLInputFactory xmlInputFactory = XMLInputFactory.newInstance();
+    /** Factory for the writers of search results, which is thread-safe once configured */
+    static final XMLOutputFactory xmlOutputFactory = XMLOutputFactory.newInstance();
+    /** Format of the times given by the server */
+    static final DateTimeFormatter serverDateTimeStyle = DateTimeFormatter.ofPattern("yyyy MMM dd HH:mm zzz", Locale.US);
+    /** All times given by the server are in GMT */
+    static final ZoneId gmt = ZoneId.ofOffset("GMT", ZoneOffset.ofHours(0));
+
+    /** Factory for the DOM builders, only used to create the builder of each thread */
+    private static final DocumentBuilderFactory documentBuilderFactory = DocumentBuilderFactory.newInstance();
+    /** Factory for the DOM transformers, only used to create the transformer of each thread */
+    private static final TransformerFactory transformerFactory = TransformerFactory.newInstance();
+
+    /** DOM builder of each thread */
+    private static final ThreadLocal<DocumentBuilder> documentBuilders = ThreadLocal.withInitial(XmlContext::newDocumentBuilder);
+    /** DOM transformer of each thread */
+    private static final ThreadLocal<Transformer> transformers = ThreadLocal.withInitial(XmlContext::newTransformer);
+
+    private XmlContext() {
+    }
+
+    /**
+     * Get the DOM builder of the current thread
+     *
+     * @return A builder in its initial state, which must not be shared with another thread
+     */
+    static DocumentBuilder documentBuilder() {
+        DocumentBuilder documentBuilder = documentBuilders.get();
+        documentBuilder.reset();
+        return documentBuilder;
+    }
+
+    /**
+     * Get the DOM transformer of the current thread, which omits the XML declaration
+     *
+     * @return A transformer in its initial state, which must not be shared with another thread
+     */
+    static Transformer transformer() {
+        Transformer transformer = transformers.get();
+        transformer.reset();
+        transformer.setOutputProperty(OutputKeys.OMIT_XML_DECLARATION, "yes");
+        return transformer;
+    }
+
+    /**
+     * Converts a price given by the server to cents.
+     *
+     * The price is in US currency format, such as $1,234.56. The dollar sign and the thousands separators are
+     * optional. Digits after the cents are rounded half up.
+     *
+     * @param price The price
+     * @return The price in cents
+     * @throws NumberFormatException If the price is not in US currency format
+     */
+    static long parseCents(String price) {
+        int length = price.length();
+        int index = (length > 0 && price.charAt(0) == '$') ? 1 : 0;
+        int start = index;
+
+        // Whole dollars, with optional commas between the digits
+        long dollars = 0;
+        for (; index < length && price.charAt(index) != '.'; index++) {
+            char c = price.charAt(index);
+            if (c >= '0' && c <= '9') dollars = Math.addExact(Math.multiplyExact(dollars, 10), c - '0');
+            else if (c != ',' || index == start) throw new NumberFormatException(price);
+        }
+        if (index == start) throw new NumberFormatException(price);
+
+        // Up to two digits of cents, rounding at the third
+        long cents = 0;
+        int digits = 0;
+        for (index++; index < length; index++, digits++) {
+            char c = price.charAt(index);
+            if (c < '0' || c > '9') throw new NumberFormatException(price);
+            if (digits < 2) cents = cents * 10 + (c - '0');
+            else if (digits == 2 && c >= '5') cents++;
+        }
+        if (digits == 1) cents *= 10;
+
+        return Math.addExact(Math.multiplyExact(dollars, 100), cents);
+    }
+
+    /**
+     * Creates a DOM builder for a thread
+     *
+     * @return The builder
+     * @throws IllegalStateException If the XML parser is not configured correctly
+     */
+    private static DocumentBuilder newDocumentBuilder() {
+        try {
+            synchronized (documentBuilderFactory) {
+                return documentBuilderFactory.newDocumentBuilder();
+            }
+        }
+        catch (ParserConfigurationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Creates a DOM transformer for a thread
+     *
+     * @return The transformer
+     * @throws IllegalStateException If the XML transformer is not configured correctly
+     */
+    private static Transformer newTransformer() {
+        try {
+            synchronized (transformerFactory) {
+                return transformerFactory.newTransformer();
+            }
+        }
+        catch (TransformerConfigurationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
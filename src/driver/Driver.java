@@ -1,5 +1,10 @@
 package driver;
 
+import dao.LocalFlightDatabase;
+import utils.Saps;
+
+import java.io.IOException;
+
 /**
  * Entry point for the ReservationSystem
  *
@@ -14,9 +19,22 @@ public class Driver {
 	/**
 	 * Entry point for the ReservationSystem
 	 *
+	 * Starts the GUI, or with the arguments --server [port] starts the search server instead. Both use the cache file
+	 * of earlier runs.
+	 *
 	 * @param args main thread initialization arguments
+	 * @throws IOException If the search server could not be started
 	 */
-	public static void main(String[] args) {
+	public static void main(String[] args) throws IOException {
+		// Start with the airports, planes and legs fetched by earlier runs
+		LocalFlightDatabase.getInstance().persistTo(Saps.CACHE_FILE);
+		if (args.length > 0 && args[0].equals("--server")) {
+			int port = args.length > 1 ? Integer.parseInt(args[1]) : Saps.SEARCH_SERVER_PORT;
+			SearchServer server = new SearchServer(port);
+			server.start();
+			System.out.println("Search server listening on port " + server.port());
+			return;
+		}
 		TripBuilder.getInstance().generateGUI();
 	}
 }
@@ -0,0 +1,118 @@
+package driver;
+
+import flight.Flight;
+import flight.FlightManager;
+import flight.Flights;
+import ui.UIModel;
+
+/**
+ * Searches for flights without the GUI.
+ *
+ * Every search is given its own copy of the flight filter and its own FlightManager, so any number of searches can
+ * run at the same time from different threads. The only state shared between searches is the LocalFlightDatabase,
+ * which caches the legs fetched from the server and makes sure each list of legs is only fetched once even when
+ * several searches need it at the same time.
+ *
+ * Searches expand every flight from one end by default. In bidirectional mode the last leg of each flight is joined
+ * from the legs at the other end of the flight instead of fetching legs at every airport the flight could connect
+ * through. When unreachable flights are pruned, flights with one leg left that no leg at the other end connects to
+ * are discarded as soon as they are built.
+ *
+ * @author agent
+ * @version 1.0 2026-10-18
+ * @since 2026-10-18
+ *
+ */
+public enum FlightSearchService {
+    INSTANCE;
+
+    /**
+     * Searches for all flights that match a flight filter
+     *
+     * @param filter The UIModel with the airports, time window, seating and layovers of the flights
+     * @return [possibly empty] The flights that match the filter
+     * @throws IllegalArgumentException If the filter does not have a departure and arrival airport
+     */
+    public Flights search(UIModel filter) {
+        return search(filter, new SearchOptions());
+    }
+
+    /**
+     * Searches for the flights that match a flight filter
+     *
+     * @param filter The UIModel with the airports, time window, seating and layovers of the flights
+     * @param options The options choosing which of the matching flights are found
+     * @return [possibly empty] The flights that match the filter
+     * @throws IllegalArgumentException If the filter does not have a departure and arrival airport
+     */
+    public Flights search(UIModel filter, SearchOptions options) {
+        return runSearch(filter, options).validFlights();
+    }
+
+    /**
+     * Searches for all flights that match a flight filter, keeping the flights that were filtered out
+     *
+     * @param filter The UIModel with the airports, time window, seating and layovers of the flights
+     * @return A FlightManager with an empty construction queue holding the results of the search
+     * @throws IllegalArgumentException If the filter does not have a departure and arrival airport
+     */
+    public FlightManager runSearch(UIModel filter) {
+        return runSearch(filter, new SearchOptions());
+    }
+
+    /**
+     * Searches for the flights that match a flight filter, keeping the flights that were filtered out
+     *
+     * @param filter The UIModel with the airports, time window, seating and layovers of the flights
+     * @param options The options choosing which of the matching flights are found
+     * @return A FlightManager with an empty construction queue holding the results of the search
+     * @throws IllegalArgumentException If the filter does not have a departure and arrival airport
+     */
+    public FlightManager runSearch(UIModel filter, SearchOptions options) {
+        FlightManager flightManager = newSearch(filter, options);
+        flightManager.completeQueue();
+        return flightManager;
+    }
+
+    /**
+     * Starts a search for the flights that match a flight filter without completing it. The search is completed by
+     * calling completeQueue on the returned FlightManager, and can be cancelled from another thread while it runs.
+     *
+     * @param filter The UIModel with the airports, time window, seating and layovers of the flights
+     * @param options The options choosing which of the matching flights are found
+     * @return A FlightManager with the first legs of the flights on its construction queue
+     * @throws IllegalArgumentException If the filter does not have a departure and arrival airport
+     */
+    public FlightManager newSearch(UIModel filter, SearchOptions options) {
+        if (filter.departureAirport() == null || filter.arrivalAirport() == null)
+            throw new IllegalArgumentException("Departure and arrival airport are required fields!");
+
+        // Copy the filter so the caller can keep editing it while the search runs
+        UIModel searchFilter = copyOf(filter);
+        FlightManager flightManager = new FlightManager(searchFilter);
+        flightManager.parallelSearch(options.isParallel());
+        flightManager.bidirectionalSearch(options.isBidirectional());
+        flightManager.pruneUnreachable(options.isPruned());
+        flightManager.paretoOptimal(options.isParetoOptimal());
+        flightManager.cheapestFlights(options.cheapestFlights());
+        flightManager.timeLimit(options.timeLimit());
+        flightManager.maxExpansions(options.maxExpansions());
+        flightManager.enqueueFlight(new Flight(searchFilter.seatingType()));
+        return flightManager;
+    }
+
+    /**
+     * Copies a flight filter
+     *
+     * @param filter The UIModel to copy
+     * @return A new UIModel with the same values
+     */
+    private static UIModel copyOf(UIModel filter) {
+        try {
+            return filter.clone();
+        } catch (CloneNotSupportedException exc) {
+            // UIModel is Cloneable, so this can not happen
+            throw new IllegalStateException(exc);
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package driver;
+
+import java.time.Duration;
+
+/**
+ * Options for a search run by the FlightSearchService, other than the flight filter itself.
+ *
+ * The default options find every valid flight, without any limit on the time or the number of flights expanded.
+ *
+ * @author agent
+ * @version 1.0 2026-10-18
+ * @since 2026-10-18
+ *
+ */
+public class SearchOptions {
+    /** If true, only the flights not dominated on price, travel time and layovers are kept */
+    private boolean isParetoOptimal = false;
+    /** The number of cheapest flights to find, or 0 to find every flight */
+    private int cheapestFlights = 0;
+    /** The time after which the search stops, or null for no limit */
+    private Duration timeLimit = null;
+    /** The number of flights after which the search stops, or 0 for no limit */
+    private int maxExpansions = 0;
+    /** If true, the last leg of each flight is joined from the legs at the other end of the flight */
+    private boolean isBidirectional = false;
+    /** If true, flights with one leg left are discarded if no leg at the other end of the flight connects to them */
+    private boolean isPruned = false;
+    /** If true, each level of the search is expanded on the shared search pool instead of the calling thread */
+    private boolean isParallel = true;
+
+    /**
+     * Check if only the pareto optimal flights are kept
+     *
+     * @return True if only the flights not dominated on price, travel time and layovers are kept
+     */
+    public boolean isParetoOptimal() { return isParetoOptimal; }
+
+    /**
+     * Set whether only the pareto optimal flights are kept
+     *
+     * @param isParetoOptimal True to only keep the flights not dominated on price, travel time and layovers
+     */
+    public void paretoOptimal(boolean isParetoOptimal) { this.isParetoOptimal = isParetoOptimal; }
+
+    /**
+     * Get the number of cheapest flights to find
+     *
+     * @return The number of flights, or 0 to find every flight
+     */
+    public int cheapestFlights() { return cheapestFlights; }
+
+    /**
+     * Set the number of cheapest flights to find
+     *
+     * @param cheapestFlights The number of flights, or 0 to find every flight
+     * @throws IllegalArgumentException If the number is negative
+     */
+    public void cheapestFlights(int cheapestFlights) {
+        if (cheapestFlights < 0)
+            throw new IllegalArgumentException(Integer.toString(cheapestFlights));
+        this.cheapestFlights = cheapestFlights;
+    }
+
+    /**
+     * Get the time limit of the search
+     *
+     * @return [possibly null] The time after which the search stops, or null for no limit
+     */
+    public Duration timeLimit() { return timeLimit; }
+
+    /**
+     * Set the time limit of the search, measured from the start of the search
+     *
+     * @param timeLimit The time after which the search stops, or null for no limit
+     */
+    public void timeLimit(Duration timeLimit) { this.timeLimit = timeLimit; }
+
+    /**
+     * Get the maximum number of flights the search expands
+     *
+     * @return The number of flights after which the search stops, or 0 for no limit
+     */
+    public int maxExpansions() { return maxExpansions; }
+
+    /**
+     * Set the maximum number of flights the search expands
+     *
+     * @param maxExpansions The number of flights after which the search stops, or 0 for no limit
+     * @throws IllegalArgumentException If the number is negative
+     */
+    public void maxExpansions(int maxExpansions) {
+        if (maxExpansions < 0)
+            throw new IllegalArgumentException(Integer.toString(maxExpansions));
+        this.maxExpansions = maxExpansions;
+    }
+
+    /**
+     * Check if the last leg of each flight is joined from the legs at the other end of the flight
+     *
+     * @return True if the search is bidirectional
+     */
+    public boolean isBidirectional() { return isBidirectional; }
+
+    /**
+     * Set whether the last leg of each flight is joined from the legs at the other end of the flight. This fetches
+     * fewer legs, but legs longer than Saps.MAX_LEG_DURATION may be missed and flights filtered out for layovers are
+     * not kept, so it is off by default.
+     *
+     * @param isBidirectional True to join the last leg of each flight, false to expand flights from one end only
+     */
+    public void bidirectional(boolean isBidirectional) { this.isBidirectional = isBidirectional; }
+
+    /**
+     * Check if flights which can not reach the other end of the flight are discarded
+     *
+     * @return True if flights with one leg left are discarded when no leg at the other end connects to them
+     */
+    public boolean isPruned() { return isPruned; }
+
+    /**
+     * Set whether flights which can not reach the other end of the flight are discarded. Only flights with one leg
+     * left are checked, and legs longer than Saps.MAX_LEG_DURATION may be missed, so it is off by default.
+     *
+     * @param isPruned True to discard flights with one leg left if no leg at the other end connects to them
+     */
+    public void pruneUnreachable(boolean isPruned) { this.isPruned = isPruned; }
+
+    /**
+     * Check if each level of the search is expanded in parallel
+     *
+     * @return True if the flights are expanded on the shared search pool, false if on the thread running the search
+     */
+    public boolean isParallel() { return isParallel; }
+
+    /**
+     * Set whether each level of the search is expanded in parallel. The search pool is shared by every search, so
+     * callers that already run many searches at once, each on its own thread, get more from running them on that thread.
+     *
+     * @param isParallel True to expand flights on the shared search pool, false to expand them on the calling thread
+     */
+    public void parallel(boolean isParallel) { this.isParallel = isParallel; }
+}
@@ -0,0 +1,407 @@
+package driver;
+
+import airport.Airport;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import dao.ConvertFlightsToXML;
+import dao.LocalFlightDatabase;
+import flight.Flight;
+import flight.FlightListener;
+import flight.FlightManager;
+import flight.Flights;
+import ui.UIModel;
+import utils.Saps;
+
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Serves flight searches over HTTP without the GUI.
+ *
+ * A GET request to /search runs a search with the FlightSearchService and streams the sorted flights back as XML.
+ * The query parameters match the fields of a UIModel:
+ *
+ * departure and arrival: airport code or name (required)
+ * date: flight date as yyyy-MM-dd (default is the earliest date)
+ * timeType: Departure or Arrival (default Departure)
+ * start and end: local time window as HH:mm (default is the whole day)
+ * layovers: maximum number of layovers (default 2)
+ * seating: Coach or First Class (default Coach)
+ * passengers: number of passengers (default 1)
+ * sort: comma separated Flights.SortKey names, such as price,travel_duration (default price)
+ * order: asc or desc (default asc)
+ * pareto: true to only return the flights not dominated on price, travel time and layovers (default false)
+ * cheapest: the number of cheapest flights to return, found best first (default 0 for every flight)
+ * bidirectional: true to join the last leg of each flight from the legs at the other end (default false)
+ * prune: true to discard flights with one leg left that no leg at the other end connects to (default false)
+ * timeLimit: milliseconds after which the search stops and returns the flights found so far (default
+ *            Saps.SEARCH_TIME_LIMIT, 0 for no limit)
+ * stream: true to write each flight as soon as it is found instead of sorting them (default false)
+ *
+ * parallel: true to expand the flights on the search pool shared by every request (default false)
+ *
+ * A search that was stopped by its time limit is answered with the header X-Search-Truncated: true. Streamed searches
+ * send their headers before the search starts, so they are not sorted and do not have this header. A streamed search
+ * for the cheapest flights still writes them in order of price. If a streamed search fails after it has started, the
+ * flights found so far are followed by an Error element; other failed searches are answered with status 500.
+ *
+ * Each request is handled on its own virtual thread when the JVM supports them, so requests that are blocked on the
+ * reservation server do not hold on to a platform thread. Older JVMs use a cached pool of platform threads instead.
+ * Searches run on the request thread by default: a parallel search waits on the search pool, which has one thread
+ * per processor for every request together, so it only helps when few requests run at once.
+ *
+ * @author agent
+ * @version 1.0 2026-10-18
+ * @since 2026-10-18
+ *
+ */
+public class SearchServer {
+    /** Path of the search endpoint */
+    private static final String SEARCH_PATH = "/search";
+
+    /** The embedded HTTP server */
+    private final HttpServer server;
+    /** The executor handling each request */
+    private final ExecutorService executor;
+
+    /**
+     * Constructor binds the server to a port without starting it
+     *
+     * @param port The port to listen on, or 0 for any free port
+     * @throws IOException If the port could not be bound
+     */
+    public SearchServer(int port) throws IOException {
+        server = HttpServer.create(new InetSocketAddress(port), 0);
+        executor = newRequestExecutor();
+        server.setExecutor(executor);
+        server.createContext(SEARCH_PATH, this::handleSearch);
+    }
+
+    /**
+     * Starts accepting requests
+     */
+    public void start() {
+        server.start();
+    }
+
+    /**
+     * Stops accepting requests, waiting up to a second for the active requests to finish
+     */
+    public void stop() {
+        server.stop(1);
+        executor.shutdown();
+    }
+
+    /**
+     * Get the port the server is listening on
+     *
+     * @return The port
+     */
+    public int port() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Creates an executor that starts a virtual thread for each task, or a cached thread pool if virtual threads are
+     * not available in this JVM
+     *
+     * @return The executor for handling requests
+     */
+    private static ExecutorService newRequestExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException exc) {
+            return Executors.newCachedThreadPool();
+        }
+    }
+
+    /**
+     * Handles a request to the search endpoint
+     *
+     * @param exchange The request and response
+     * @throws IOException If the response could not be sent
+     */
+    private void handleSearch(HttpExchange exchange) throws IOException {
+        try {
+            if (!exchange.getRequestMethod().equals("GET")) {
+                sendError(exchange, 405, "Only GET is supported");
+                return;
+            }
+
+            Map<String, String> parameters = parseQuery(exchange.getRequestURI().getRawQuery());
+            UIModel filter;
+            List<Flights.SortKey> sortKeys;
+            boolean isAscending;
+            boolean isStreamed;
+            SearchOptions options = new SearchOptions();
+            try {
+                filter = toFilter(parameters);
+                sortKeys = toSortKeys(parameters.getOrDefault("sort", "price"));
+                isAscending = !parameters.getOrDefault("order", "asc").equalsIgnoreCase("desc");
+                isStreamed = Boolean.parseBoolean(parameters.get("stream"));
+                options.paretoOptimal(Boolean.parseBoolean(parameters.get("pareto")));
+                options.bidirectional(Boolean.parseBoolean(parameters.get("bidirectional")));
+                options.pruneUnreachable(Boolean.parseBoolean(parameters.get("prune")));
+                options.parallel(Boolean.parseBoolean(parameters.get("parallel")));
+                if (parameters.containsKey("cheapest"))
+                    options.cheapestFlights(toInt("cheapest", parameters.get("cheapest"), 0, Integer.MAX_VALUE));
+                options.timeLimit(Saps.SEARCH_TIME_LIMIT);
+                if (parameters.containsKey("timeLimit")) {
+                    int timeLimit = toInt("timeLimit", parameters.get("timeLimit"), 0, Integer.MAX_VALUE);
+                    options.timeLimit(timeLimit == 0 ? null : Duration.ofMillis(timeLimit));
+                }
+            } catch (IllegalArgumentException | DateTimeParseException exc) {
+                sendError(exchange, 400, exc.getMessage());
+                return;
+            }
+
+            if (isStreamed) {
+                streamSearch(exchange, filter, options);
+                return;
+            }
+
+            FlightManager search;
+            try {
+                search = FlightSearchService.INSTANCE.runSearch(filter, options);
+            } catch (RuntimeException exc) {
+                System.err.println("Search failed: " + exc);
+                sendError(exchange, 500, "Search failed");
+                return;
+            }
+            Flights flights = search.validFlights();
+            flights.sortBy(isAscending, sortKeys.toArray(new Flights.SortKey[0]));
+
+            // The length is not known until the flights are written, so the response is chunked
+            exchange.getResponseHeaders().set("Content-Type", "application/xml; charset=UTF-8");
+            if (search.isTruncated())
+                exchange.getResponseHeaders().set("X-Search-Truncated", "true");
+            exchange.sendResponseHeaders(200, 0);
+            try (OutputStream responseBody = exchange.getResponseBody()) {
+                ConvertFlightsToXML.writeFlights(flights, responseBody);
+            } catch (XMLStreamException exc) {
+                // The status has already been sent, so the client sees an incomplete document
+                throw new IOException(exc);
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    /**
+     * Runs a search, writing each flight to the response as soon as it is found. If the client goes away the search is
+     * cancelled.
+     *
+     * @param exchange The request and response
+     * @param filter The flight filter of the request
+     * @param options The search options of the request
+     * @throws IOException If the response could not be sent
+     */
+    private static void streamSearch(HttpExchange exchange, UIModel filter, SearchOptions options) throws IOException {
+        FlightManager search;
+        try {
+            search = FlightSearchService.INSTANCE.newSearch(filter, options);
+        } catch (RuntimeException exc) {
+            System.err.println("Search failed: " + exc);
+            sendError(exchange, 500, "Search failed");
+            return;
+        }
+
+        exchange.getResponseHeaders().set("Content-Type", "application/xml; charset=UTF-8");
+        exchange.sendResponseHeaders(200, 0);
+        try (OutputStream responseBody = exchange.getResponseBody()) {
+            XMLStreamWriter writer = ConvertFlightsToXML.startFlights(responseBody);
+            try {
+                StreamingListener listener = new StreamingListener(writer, search);
+                search.flightListener(listener);
+                try {
+                    search.completeQueue();
+                } catch (RuntimeException exc) {
+                    // The status has already been sent, so the failure is reported after the flights found so far
+                    System.err.println("Search failed: " + exc);
+                    if (listener.failure == null)
+                        ConvertFlightsToXML.writeError(writer, "Search failed");
+                }
+                if (listener.failure != null) throw listener.failure;
+                ConvertFlightsToXML.endFlights(writer);
+            } finally {
+                writer.close();
+            }
+        } catch (XMLStreamException exc) {
+            // The client has gone away or the response failed, so it sees an incomplete document
+            throw new IOException(exc);
+        }
+    }
+
+    /**
+     * Builds a flight filter from the query parameters of a request
+     *
+     * @param parameters The query parameters
+     * @return A UIModel with the values of the parameters
+     * @throws IllegalArgumentException If a parameter is missing or invalid
+     * @throws DateTimeParseException If a date or time can not be parsed
+     */
+    private static UIModel toFilter(Map<String, String> parameters) {
+        UIModel filter = new UIModel();
+        filter.departureAirport(toAirport(parameters.get("departure")));
+        filter.arrivalAirport(toAirport(parameters.get("arrival")));
+
+        if (parameters.containsKey("date")) {
+            LocalDate date = LocalDate.parse(parameters.get("date"));
+            if (date.isBefore(Saps.EARLIEST_DATE.toLocalDate()) || !date.isBefore(Saps.LATEST_DATE.toLocalDate()))
+                throw new IllegalArgumentException("date is outside of the available dates");
+            filter.flightLocalDate(date);
+        }
+        if (parameters.containsKey("timeType"))
+            filter.timeType(toChoice("timeType", parameters.get("timeType"), Saps.TIME_WINDOW_TYPES));
+        if (parameters.containsKey("start"))
+            filter.startFlightLocalTime(LocalTime.parse(parameters.get("start")));
+        if (parameters.containsKey("end"))
+            filter.endFlightLocalTime(LocalTime.parse(parameters.get("end")));
+        if (filter.endFlightLocalTime().isBefore(filter.startFlightLocalTime()))
+            throw new IllegalArgumentException("end is before start");
+        if (parameters.containsKey("layovers"))
+            filter.numberOfLayovers(toInt("layovers", parameters.get("layovers"), (int) Saps.MIN_LAYOVERS, (int) Saps.MAX_LAYOVERS));
+        if (parameters.containsKey("seating"))
+            filter.seatingType(toChoice("seating", parameters.get("seating"), Saps.SEATING_TYPES));
+        if (parameters.containsKey("passengers"))
+            filter.numberOfPassengers(toInt("passengers", parameters.get("passengers"), Saps.MIN_PASSENGERS, Saps.MAX_PASSENGERS));
+        return filter;
+    }
+
+    /**
+     * Finds the airport named by a query parameter
+     *
+     * @param airportString Airport code or name
+     * @return The matching airport
+     * @throws IllegalArgumentException If the parameter is missing or no airport matches
+     */
+    private static Airport toAirport(String airportString) {
+        if (airportString == null)
+            throw new IllegalArgumentException("departure and arrival are required");
+        Airport airport = LocalFlightDatabase.getInstance().getAirportFromString(airportString);
+        if (airport == null)
+            throw new IllegalArgumentException("Unknown airport " + airportString);
+        return airport;
+    }
+
+    /**
+     * Matches a query parameter to one of a list of choices, ignoring case
+     *
+     * @param name The name of the parameter
+     * @param value The value of the parameter
+     * @param choices The valid values
+     * @return The matching choice
+     * @throws IllegalArgumentException If the value does not match a choice
+     */
+    private static String toChoice(String name, String value, List<String> choices) {
+        for (String choice : choices)
+            if (choice.equalsIgnoreCase(value)) return choice;
+        throw new IllegalArgumentException(name + " must be one of " + choices);
+    }
+
+    /**
+     * Parses a query parameter as a bounded integer
+     *
+     * @param name The name of the parameter
+     * @param value The value of the parameter
+     * @param min The smallest valid value
+     * @param max The largest valid value
+     * @return The value as an integer
+     * @throws IllegalArgumentException If the value is not an integer between min and max
+     */
+    private static int toInt(String name, String value, int min, int max) {
+        int number = Integer.parseInt(value);
+        if (number < min || number > max)
+            throw new IllegalArgumentException(name + " must be between " + min + " and " + max);
+        return number;
+    }
+
+    /**
+     * Parses the sort keys of a request
+     *
+     * @param value Comma separated names of Flights.SortKey values
+     * @return The sort keys in order of priority
+     * @throws IllegalArgumentException If a name does not match a sort key
+     */
+    private static List<Flights.SortKey> toSortKeys(String value) {
+        List<Flights.SortKey> sortKeys = new ArrayList<>();
+        for (String name : value.split(","))
+            sortKeys.add(Flights.SortKey.valueOf(name.trim().toUpperCase(Locale.US)));
+        return sortKeys;
+    }
+
+    /**
+     * Splits a raw query string into decoded parameters
+     *
+     * @param rawQuery [possibly null] The query string of the request
+     * @return The parameters by name, keeping the last value of repeated parameters
+     */
+    private static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> parameters = new HashMap<>();
+        if (rawQuery == null || rawQuery.isEmpty()) return parameters;
+        for (String pair : rawQuery.split("&")) {
+            int separator = pair.indexOf('=');
+            String name = separator < 0 ? pair : pair.substring(0, separator);
+            String value = separator < 0 ? "" : pair.substring(separator + 1);
+            parameters.put(URLDecoder.decode(name, StandardCharsets.UTF_8), URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return parameters;
+    }
+
+    /**
+     * Sends a plain text error response
+     *
+     * @param exchange The request and response
+     * @param status The HTTP status code
+     * @param message The error message
+     * @throws IOException If the response could not be sent
+     */
+    private static void sendError(HttpExchange exchange, int status, String message) throws IOException {
+        byte[] body = String.valueOf(message).getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=UTF-8");
+        exchange.sendResponseHeaders(status, body.length);
+        exchange.getResponseBody().write(body);
+    }
+
+    /** Writes each flight of a streamed search to the response, cancelling the search if the response fails */
+    private static class StreamingListener implements FlightListener {
+        private final XMLStreamWriter writer;
+        private final FlightManager search;
+        /** The first error writing the response, or null */
+        private XMLStreamException failure;
+
+        private StreamingListener(XMLStreamWriter writer, FlightManager search) {
+            this.writer = writer;
+            this.search = search;
+        }
+
+        @Override
+        public void flightFound(Flight flight) {
+            if (failure != null) return;
+            try {
+                ConvertFlightsToXML.writeFlight(writer, flight);
+                // Flushing sends the flight to the client as a chunk
+                writer.flush();
+            } catch (XMLStreamException exc) {
+                failure = exc;
+                search.cancel();
+            }
+        }
+    }
+}
@@ -40,7 +40,7 @@ public class Trip {
      *
      * @return the active Trip, or a new one if one is not created
      */
-    public static Trip getInstance() {
+    public static synchronized Trip getInstance() {
         if (single_instance == null) {
             single_instance = new Trip();
         }
@@ -1,6 +1,5 @@
 package driver;
 
-import flight.Flight;
 import flight.FlightManager;
 import flight.Flights;
 import leg.Legs;
@@ -8,6 +7,7 @@ import ui.ReservationApp;
 import ui.UIModel;
 import ui.UIController;
 import utils.NotificationManager;
+import utils.Saps;
 
 import javax.swing.*;
 import java.util.ArrayList;
@@ -23,7 +23,6 @@ import java.util.ArrayList;
  */
 public class TripBuilder {
     private UIController app;
-    private FlightManager flightController;
 
     // Singleton variable
     private static TripBuilder single_instance = null;
@@ -33,7 +32,7 @@ public class TripBuilder {
      *
      * @return the active TripBuilder, or a new one if one is not created
      */
-    public static TripBuilder getInstance() {
+    public static synchronized TripBuilder getInstance() {
         if (single_instance == null) {
             single_instance = new TripBuilder();
         }
@@ -48,40 +47,80 @@ public class TripBuilder {
     }
 
     /**
-     * Searches for legs that match the departure date and airport specified by the user
-     * (does not currently store any legs, just assigns them to display in the viewer)
-     * (will eventually be moved, and this function will actually search for flights)
+     * Searches for flights that match the input the user has accepted in the GUI
      *
      * @return All flights that match user input
      */
     public Flights searchForFlights() {
-        // Get the contents of the model
-        UIModel userInput = app.getAcceptedInput();
+        return searchForFlights(app.getAcceptedInput());
+    }
 
+    /**
+     * Searches for flights that match a flight filter, notifying the user if none are found or if the search was
+     * stopped by its time limit
+     *
+     * @param userInput The UIModel to search with
+     * @return All flights that match the filter
+     */
+    public Flights searchForFlights(UIModel userInput) {
+        // Confirm that the user has supplied a departure airport and arrival airport
+        if (!isSearchInputValid(userInput)) return new Flights();
 
-        // Confirm that the user has supplied a departure airport and departure date
-        if (userInput.departureAirport() != null && userInput.arrivalAirport() != null) {
-            // Start a timer for busy notifications
-            int timerID = NotificationManager.getInstance().startBusyTimer();
-            flightController = new FlightManager(userInput);
-            Flight firstFlight = new Flight(userInput.seatingType());
-            flightController.enqueueFlight(firstFlight);
+        // Start a timer for busy notifications
+        int timerID = NotificationManager.getInstance().startBusyTimer();
+        FlightManager flightController;
+        try {
+            flightController = newSearch(userInput);
             flightController.completeQueue();
+        } finally {
             // End the timer for busy notifications
             NotificationManager.getInstance().stopBusyTimer(timerID);
-            if (flightController.validFlights().size() == 0)
-                if (flightController.isOtherSeatingPossible())
-                    NotificationManager.getInstance().popupError("Flights only available for alternate seating!");
-                else
-                    NotificationManager.getInstance().popupError("No available flights found!");
-
-            return flightController.validFlights();
-            // Get legs which match the user input criteria, this will most likely be implemented for flights in later versions (not legs)
-            //app.setDisplayList(LocalFlightDatabase.getInstance().getLegList(userInput.departureAirport(), userInput.startFlightDateTime().toLocalDate(), false));
-        } else {
-            NotificationManager.getInstance().popupError("Departure and arrival airport are required fields!");
-            return new Flights();
         }
+        notifySearchResults(flightController);
+        return flightController.validFlights();
+    }
 
+    /**
+     * Checks that a flight filter can be searched, notifying the user if it can not
+     *
+     * @param userInput The UIModel to search with
+     * @return True if the user has supplied a departure airport and arrival airport
+     */
+    public boolean isSearchInputValid(UIModel userInput) {
+        if (userInput.departureAirport() != null && userInput.arrivalAirport() != null) return true;
+        NotificationManager.getInstance().popupError("Departure and arrival airport are required fields!");
+        return false;
+    }
+
+    /**
+     * Starts a search for flights that match a flight filter, stopping after Saps.SEARCH_TIME_LIMIT. The legs for the
+     * first flights are fetched from the server, so this should not be called on the Event Dispatch Thread.
+     *
+     * @param userInput The UIModel to search with, which has a departure airport and arrival airport
+     * @return A FlightManager which finds the flights when its queue is completed, and may be cancelled
+     */
+    public FlightManager newSearch(UIModel userInput) {
+        SearchOptions options = new SearchOptions();
+        options.timeLimit(Saps.SEARCH_TIME_LIMIT);
+        return FlightSearchService.INSTANCE.newSearch(userInput, options);
+    }
+
+    /**
+     * Notifies the user if a completed search did not find any flights or was stopped by its time limit. A search
+     * cancelled by the user is not reported.
+     *
+     * @param flightController The FlightManager of the completed search
+     */
+    public void notifySearchResults(FlightManager flightController) {
+        if (flightController.isCancelled()) return;
+        if (flightController.validFlights().size() == 0)
+            if (flightController.isTruncated())
+                NotificationManager.getInstance().popupError("No available flights found before the search timed out!");
+            else if (flightController.isOtherSeatingPossible())
+                NotificationManager.getInstance().popupError("Flights only available for alternate seating!");
+            else
+                NotificationManager.getInstance().popupError("No available flights found!");
+        else if (flightController.isTruncated())
+            NotificationManager.getInstance().popupError("Search timed out, showing the flights found so far!");
     }
 }
\ No newline at end of file
@@ -3,11 +3,13 @@ package flight;
 import airport.Airport;
 import dao.LocalFlightDatabase;
 import leg.Leg;
+import leg.LegTable;
 import leg.Legs;
 import ui.UIModel;
 import utils.Saps;
 import java.math.BigDecimal;
 import java.time.Duration;
+import java.time.LocalDateTime;
 import java.time.ZonedDateTime;
 
 /**
@@ -26,6 +28,12 @@ public class Flight implements Cloneable {
     private String seatingType;
     /** The validity of the flight as compared to a UIModel */
     private String filterReason;
+    /** Total coach price of the legs in cents, or NO_PRICE, valid while isTotalCached */
+    private long totalCoachCents;
+    /** Total first class price of the legs in cents, or NO_PRICE, valid while isTotalCached */
+    private long totalFirstClassCents;
+    /** True if the totals have been summed since the legs last changed */
+    private boolean isTotalCached;
 
     /**
      *  Constructor initializes default values
@@ -51,12 +59,29 @@ public class Flight implements Cloneable {
         else this.seatingType = Saps.SEATING_TYPES.get(0);
     }
 
+    /**
+     * Constructor for a flight that has already been compared to a UIModel
+     *
+     * @param seatingType The seating type of the flight
+     * @param legs The legs of the flight in order from departure to arrival
+     * @param filterReason The validity of the flight as compared to a UIModel
+     * @post member attributes are initialized
+     */
+    Flight(String seatingType, Legs legs, String filterReason) {
+        this(seatingType);
+        legList = legs;
+        this.filterReason = filterReason;
+    }
+
     /**
      * Method for setting the leg list
      *
      * @param legs The new leg list
      */
-    public void legList(Legs legs) { legList = legs;}
+    public void legList(Legs legs) {
+        legList = legs;
+        isTotalCached = false;
+    }
 
     /**
      * Method for getting the leg list
@@ -72,6 +97,7 @@ public class Flight implements Cloneable {
      */
     public void addLegToEnd(Leg newLeg) {
         legList.add(newLeg);
+        isTotalCached = false;
     }
 
     /**
@@ -81,6 +107,7 @@ public class Flight implements Cloneable {
      */
     public void addLegToBeginning(Leg newLeg) {
         legList.add(0, newLeg);
+        isTotalCached = false;
     }
 
     /**
@@ -164,25 +191,74 @@ public class Flight implements Cloneable {
         else return null;
     }
 
+    /**
+     * Method to get the local date and time of the first leg boarding time, without creating any time zone objects
+     *
+     * @return [possibly null] The first leg local boarding date and time
+     */
+    public LocalDateTime getLocalDepartureDateTime() {
+        if (legList.size() > 0) {
+            return legList.get(0).getLocalBoardingDateTime();
+        }
+        else return null;
+    }
+
+    /**
+     * Method to get the local date and time of the last leg disembarking time, without creating any time zone objects
+     *
+     * @return [possibly null] The last leg local disembarking date and time
+     */
+    public LocalDateTime getLocalArrivalDateTime() {
+        if (legList.size() > 0) {
+            return legList.get(legList.size()-1).getLocalDisembarkingDateTime();
+        }
+        else return null;
+    }
+
     /**
      * Method to get Total Price
      *
-     * @return [possibly null] The total price of all legs in the flight
+     * @return [possibly null] The total price of all legs in the flight, or null if the flight has no legs or a leg
+     * has no price for the seating type
      */
     public BigDecimal getTotalPrice() {
-        BigDecimal totalPrice = new BigDecimal("0");
-        if (legList.size() > 0) {
-            if (seatingType.equals("First Class")) {
-                for (Leg thisLeg : legList) {
-                    totalPrice = totalPrice.add(thisLeg.getFirstClassPrice());
-                }
-            } else {
-                for (Leg thisLeg : legList) {
-                    totalPrice = totalPrice.add(thisLeg.getCoachPrice());
-                }
+        long totalCents = getTotalCents();
+        if (totalCents == LegTable.NO_PRICE) return null;
+        return BigDecimal.valueOf(totalCents, 2);
+    }
+
+    /**
+     * Method to get Total Price in cents, without allocating
+     *
+     * The totals of both seating types are summed the first time they are needed after the legs change, so the
+     * prices of the legs must not be changed once a total has been read.
+     *
+     * @return The total price of all legs in the flight in cents, or NO_PRICE if the flight has no legs or a leg has
+     * no price for the seating type
+     */
+    public long getTotalCents() {
+        if (!isTotalCached) {
+            totalCoachCents = legList.isEmpty() ? LegTable.NO_PRICE : 0;
+            totalFirstClassCents = totalCoachCents;
+            for (Leg thisLeg : legList) {
+                totalCoachCents = addCents(totalCoachCents, thisLeg.getCoachCents());
+                totalFirstClassCents = addCents(totalFirstClassCents, thisLeg.getFirstClassCents());
             }
-            return totalPrice;
-        } else return null;
+            isTotalCached = true;
+        }
+        return seatingType.equals("First Class") ? totalFirstClassCents : totalCoachCents;
+    }
+
+    /**
+     * Adds the price of a leg to a total
+     *
+     * @param totalCents The total in cents, or NO_PRICE
+     * @param legCents The price of the leg in cents, or NO_PRICE
+     * @return The sum in cents, or NO_PRICE if either is NO_PRICE
+     */
+    private static long addCents(long totalCents, long legCents) {
+        if (totalCents == LegTable.NO_PRICE || legCents == LegTable.NO_PRICE) return LegTable.NO_PRICE;
+        return totalCents + legCents;
     }
 
     /**
@@ -223,38 +299,57 @@ public class Flight implements Cloneable {
      * @param uIFilter The UI Filter
      */
     public void isMatch(UIModel uIFilter) {
-        filterReason = "";
+        boolean isConnected = LegTable.airportId(uIFilter.departureAirport()) == LegTable.airportId(getDepartureAirport())
+                && LegTable.airportId(uIFilter.arrivalAirport()) == LegTable.airportId(getArrivalAirport());
+        int fewestRemainingSeats = Integer.MAX_VALUE;
+        int fewestRemainingSeatsOfAnyType = Integer.MAX_VALUE;
+        for (Leg thisLeg : legList) {
+            fewestRemainingSeats = Math.min(fewestRemainingSeats, thisLeg.getRemainingSeats(seatingType));
+            fewestRemainingSeatsOfAnyType = Math.min(fewestRemainingSeatsOfAnyType,
+                    Math.max(thisLeg.getRemainingSeats("Coach"), thisLeg.getRemainingSeats("First Class")));
+        }
+        filterReason = filterReason(uIFilter, isConnected, getNumberOfLayovers(), fewestRemainingSeats,
+                fewestRemainingSeatsOfAnyType);
+    }
+
+    /**
+     * Method to compare the attributes of a flight to a UI Filter
+     *
+     * @param uIFilter The UI Filter
+     * @param isConnected True if the flight departs from and arrives at the airports of the filter
+     * @param numberOfLayovers The number of layovers of the flight
+     * @param fewestRemainingSeats The fewest remaining seats of the seating type of the flight on any leg
+     * @param fewestRemainingSeatsOfAnyType The fewest remaining seats on any leg, counting the seating type with the
+     *                                      most seats remaining on each leg
+     * @return The filter reason, empty if the flight is incomplete but still valid
+     */
+    static String filterReason(UIModel uIFilter, boolean isConnected, int numberOfLayovers,
+                               int fewestRemainingSeats, int fewestRemainingSeatsOfAnyType) {
         boolean full = false;
         boolean complete = false;
 
-        if (uIFilter.numberOfLayovers() <= getNumberOfLayovers()) {
+        if (uIFilter.numberOfLayovers() <= numberOfLayovers) {
             full = true;
         }
-        if (uIFilter.departureAirport() == getDepartureAirport()
-                && uIFilter.arrivalAirport() == getArrivalAirport()) {
+        if (isConnected) {
             complete = true;
         }
         if (!complete && full) {
-            if (getNumberOfLayovers() == 2) filterReason = "invalid";
-            else filterReason = "layovers";
-            return;
+            if (numberOfLayovers == 2) return "invalid";
+            else return "layovers";
         }
 
-        for (Leg thisLeg : legList)
-            if (thisLeg.getRemainingSeats("Coach") < uIFilter.numberOfPassengers() &&
-                    thisLeg.getRemainingSeats("First Class") < uIFilter.numberOfPassengers()) {
-                filterReason = "invalid";
-                return;
-            }
-
-        for (Leg thisLeg : legList)
-            if (complete && thisLeg.getRemainingSeats(seatingType) < uIFilter.numberOfPassengers()) {
-                filterReason = "seating";
-                return;
-            }
+        // A leg without enough seats of either type can not be part of any flight
+        if (fewestRemainingSeatsOfAnyType < uIFilter.numberOfPassengers()) {
+            return "invalid";
+        }
 
-        if (complete) filterReason = "complete";
+        if (complete && fewestRemainingSeats < uIFilter.numberOfPassengers()) {
+            return "seating";
+        }
 
+        if (complete) return "complete";
+        return "";
     }
 
     public boolean isAfterBy(Flight otherFlight, Duration timeGap){
@@ -267,6 +362,7 @@ public class Flight implements Cloneable {
             updatedLegs.add(LocalFlightDatabase.getInstance().getRefreshedLeg(thisLeg));
         }
         legList = updatedLegs;
+        isTotalCached = false;
     }
 
     /**
@@ -0,0 +1,20 @@
+package flight;
+
+/**
+ * Receives the valid flights of a search as soon as they are found, before the search is complete.
+ *
+ * @author agent
+ * @version 1.0 2026-10-18
+ * @since 2026-10-18
+ *
+ */
+@FunctionalInterface
+public interface FlightListener {
+    /**
+     * Called once for each valid flight found by a search, on the thread completing the search. The flight is also
+     * added to the valid flights of the search, so it must not be modified.
+     *
+     * @param flight A completed flight which matches the flight filter
+     */
+    void flightFound(Flight flight);
+}
\ No newline at end of file
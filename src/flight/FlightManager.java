@@ -2,13 +2,27 @@ package flight;
 
 import airport.Airport;
 import dao.LocalFlightDatabase;
-import leg.Leg;
-import leg.Legs;
+import leg.LegTable;
 import ui.UIModel;
 import utils.Saps;
 
-import java.time.ZonedDateTime;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Constructs and filters flights, caching the ones that are valid according to user input.
@@ -17,7 +31,9 @@ import java.util.LinkedList;
  * enqueued. The queue can then be completed, which removes flights one at a time and validates them against the flight
  * filter. If the flight is complete, it is cached. If the fight is invalid it is destroyed. If the flight is
  * incomplete, candidate legs for extending the flight to one more airport are vetted and copies of the flight
- * are added back onto the queue with reasonable legs added.
+ * are added back onto the queue with reasonable legs added. Flights on the queue are partial flights which share their
+ * legs with the flight they were copied from, and only flights that leave the queue are copied into a Flight. Candidate
+ * legs are read as rows of the LegTables stored by the LocalFlightDatabase, so no Leg objects are built while searching.
  *
  * If the user has specified a departure time window, the flights are built starting from the departure airport and
  * departure time window. New legs are added to the end of the flight with the goal of eventually reaching the
@@ -27,20 +43,98 @@ import java.util.LinkedList;
  *
  * Also stores a list of potentially completable flights so that the user can be notified of alternatives.
  *
+ * In parallel search mode the queue is completed one frontier level at a time. Each level is split across a shared
+ * fork-join pool, and the results of each split are merged back in queue order so that the valid and filtered flights
+ * are identical to those of a sequential search. Before a level is split, the legs that its flights will need are
+ * fetched from the server concurrently.
+ *
+ * In bidirectional search mode the flights are only expanded from the end with the time window until they are one leg
+ * short of the layover limit. The last leg of such a flight must reach the other end of the flight, so the legs at the
+ * other end are fetched once and each flight is joined to the legs that connect to it within the layover window. This
+ * avoids fetching legs at every airport the flights have reached, and only flights that reach the other end are built.
+ * Flights that are filtered out only because they run out of layovers are not kept in this mode. Legs longer than
+ * Saps.MAX_LEG_DURATION may be missed by the join.
+ *
+ * In pareto optimal mode only the completed flights that are not dominated on total price, travel time and number of
+ * layovers are kept, and partial flights are discarded as soon as they are dominated by a completed flight. The kept
+ * flights are in the same order as they would be in a search that keeps every flight.
+ *
+ * When only the cheapest flights are needed, the queue is completed best first instead of one frontier level at a
+ * time. The cheapest flight on the queue is always removed next, and since adding a leg never lowers the price of a
+ * flight, completed flights are found in order of price. The search stops as soon as the requested number of valid
+ * flights has been found, without building the more expensive flights. Flights are removed one at a time, but the
+ * legs for the next cheapest flights on the queue are fetched together.
+ *
+ * A search can be given a time limit and a maximum number of flights to expand, and can be cancelled from another
+ * thread. The limits are checked between expansions, so a search stops soon after a limit is reached, although a
+ * request to the server that is already running is waited for. A stopped search keeps the valid flights it has found
+ * so far and is marked as truncated.
+ *
+ * A listener can be given the valid flights as soon as they are found, so they can be shown before the search is
+ * complete. It is always called on the thread completing the queue, in the order the flights are added to the valid
+ * flights. In pareto optimal mode a flight can still be dominated after it is found, so the flights are only given to
+ * the listener once the search is complete.
+ *
+ * When unreachable flights are pruned, a flight with one leg left is only kept if a leg at the other end of the flight
+ * connects to it within its layover window, so the legs at airports that can not reach the other end are never
+ * fetched. The legs at the other end are indexed once per search, when the first flight is enqueued, for every date
+ * that a flight within the layover limits could reach. Pruning keeps the same valid flights in the same order.
+ *
  * @author Chris Collins
  * @version 1.0 2020-04-30
  * @since 2020-04-30
  *
  */
 public class FlightManager {
+    /** Pool shared by all searches for expanding frontier levels in parallel */
+    private static final ForkJoinPool searchPool = new ForkJoinPool(Saps.SEARCH_PARALLELISM);
+    /** Largest slice of a frontier level that is processed by a single task, large enough to cover the cost of forking */
+    private static final int FRONTIER_SPLIT_THRESHOLD = 32;
+    /** Shortest layover between legs in minutes */
+    private static final int MIN_LAYOVER_MINUTES = (int) Saps.MIN_LAYOVER_TIME.toMinutes();
+    /** Longest layover between legs in minutes */
+    private static final int MAX_LAYOVER_MINUTES = (int) Saps.MAX_LAYOVER_TIME.toMinutes();
+    /** Longest leg in minutes */
+    private static final int MAX_LEG_MINUTES = (int) Saps.MAX_LEG_DURATION.toMinutes();
+
     /** Queue of incomplete fights */
-    private final LinkedList<Flight> constructionQueue = new LinkedList<>();
+    private final LinkedList<PartialFlight> constructionQueue = new LinkedList<>();
+    /** Flights one leg short of the layover limit, waiting to be joined to the legs at the other end of the flight */
+    private final List<PartialFlight> joiningFlights = new ArrayList<>();
     /** List of completed fights which match the filter parameters */
     private final Flights validFlights;
     /** List of completable fights which do not match the filter parameters */
     private final Flights filteredFlights;
     /** Filter for checking the validity of completed flights */
     private UIModel flightFilter;
+    /** If true, each frontier level of the construction queue is expanded in parallel */
+    private boolean isParallel = false;
+    /** If true, the last leg of each flight is joined from the legs at the other end of the flight */
+    private boolean isBidirectional = false;
+    /** If true, flights which can not reach the other end within their remaining legs are discarded when built */
+    private boolean isPruned = false;
+    /** If true, only the completed flights which are not dominated by another completed flight are kept */
+    private boolean isParetoOptimal = false;
+    /** Completed flights which are not dominated by another completed flight, used in pareto optimal mode */
+    private final ParetoFront paretoFront = new ParetoFront();
+    /** The number of cheapest valid flights to find best first, or 0 to find every valid flight */
+    private int cheapestFlights = 0;
+    /** The value of System.nanoTime after which the search stops, only used if hasDeadline is true */
+    private volatile long deadline;
+    /** True if the search has a time limit */
+    private volatile boolean hasDeadline = false;
+    /** The number of flights that may be expanded or joined, or 0 for no limit */
+    private volatile int maxExpansions = 0;
+    /** The number of flights that have been expanded or joined */
+    private final AtomicInteger expansions = new AtomicInteger();
+    /** True once the search has been cancelled */
+    private volatile boolean isCancelled = false;
+    /** True once the search has stopped before it was complete */
+    private volatile boolean isTruncated = false;
+    /** Listener given each valid flight as it is found, or null */
+    private FlightListener flightListener;
+    /** Legs at the other end of the flights, null until the first flight is enqueued */
+    private ReachabilityIndex reachability;
 
     /** Constructor initializes the lists and stores the UIModel for filtering invalid flights
      *
@@ -80,6 +174,120 @@ public class FlightManager {
      */
     public void flightFilter(UIModel flightFilter) {
         this.flightFilter = flightFilter;
+        reachability = null;
+    }
+
+    /**
+     * Set the search mode for completing the queue
+     *
+     * @param isParallel True to expand each frontier level in parallel, false to expand one flight at a time
+     */
+    public void parallelSearch(boolean isParallel) {
+        this.isParallel = isParallel;
+    }
+
+    /**
+     * Set the search mode for the last leg of each flight
+     *
+     * @param isBidirectional True to join flights to the legs at the other end of the flight, false to expand flights
+     *                        from one end only
+     */
+    public void bidirectionalSearch(boolean isBidirectional) {
+        this.isBidirectional = isBidirectional;
+    }
+
+    /**
+     * Set whether flights which can not reach the other end of the flight are discarded
+     *
+     * @param isPruned True to discard flights with one leg left if no leg at the other end connects to them
+     */
+    public void pruneUnreachable(boolean isPruned) {
+        this.isPruned = isPruned;
+    }
+
+    /**
+     * Set whether only the flights which are not dominated on total price, travel time and number of layovers are kept
+     *
+     * @param isParetoOptimal True to keep only the pareto optimal flights, false to keep every valid flight
+     */
+    public void paretoOptimal(boolean isParetoOptimal) {
+        this.isParetoOptimal = isParetoOptimal;
+    }
+
+    /**
+     * Set the number of valid flights to find. If it is positive, the queue is completed best first and only the
+     * cheapest flights are found, in order of price.
+     *
+     * @param cheapestFlights The number of cheapest valid flights to find, or 0 to find every valid flight
+     */
+    public void cheapestFlights(int cheapestFlights) {
+        this.cheapestFlights = cheapestFlights;
+    }
+
+    /**
+     * Set a time limit for the search, measured from now
+     *
+     * @param timeLimit The time after which the search stops, or null for no limit
+     */
+    public void timeLimit(Duration timeLimit) {
+        if (timeLimit != null)
+            deadline = System.nanoTime() + timeLimit.toNanos();
+        hasDeadline = timeLimit != null;
+    }
+
+    /**
+     * Set the maximum number of flights the search expands or joins with a new leg
+     *
+     * @param maxExpansions The number of flights after which the search stops, or 0 for no limit
+     */
+    public void maxExpansions(int maxExpansions) {
+        this.maxExpansions = maxExpansions;
+    }
+
+    /**
+     * Set the listener given each valid flight as soon as it is found
+     *
+     * @param flightListener The listener, or null to only collect the valid flights
+     */
+    public void flightListener(FlightListener flightListener) {
+        this.flightListener = flightListener;
+    }
+
+    /**
+     * Stops the search. It may be called from any thread, and the search stops at its next expansion.
+     */
+    public void cancel() {
+        isCancelled = true;
+    }
+
+    /**
+     * Check if the search has been cancelled
+     *
+     * @return True if cancel has been called
+     */
+    public boolean isCancelled() {
+        return isCancelled;
+    }
+
+    /**
+     * Check if the search stopped before it was complete because it was cancelled or reached a limit
+     *
+     * @return True if there may be valid flights which were not found
+     */
+    public boolean isTruncated() {
+        return isTruncated;
+    }
+
+    /**
+     * Check if the search should stop, marking it as truncated if so
+     *
+     * @return True if the search was cancelled or reached its time limit or maximum number of expansions
+     */
+    private boolean isStopped() {
+        if (!isTruncated && (isCancelled || (hasDeadline && System.nanoTime() - deadline > 0)
+                || (maxExpansions > 0 && expansions.get() >= maxExpansions)))
+            isTruncated = true;
+        return isTruncated;
     }
 
     /**
@@ -87,167 +295,623 @@ public class FlightManager {
      * from the top of the queue, it is checked for validity and completeness against the flight filter. If is is
      * incomplete copies are added back onto the queue.
      *
+     * @throws java.util.concurrent.CompletionException If legs for the search could not be obtained from the server
      * @pre The flight filter is not empty
-     * @post The construction queue is empty
+     * @post The construction queue is empty, even if the search was stopped
      */
     public void completeQueue(){
-        while (!constructionQueue.isEmpty()){
-            Flight nextFlight = constructionQueue.removeFirst();
-            // Populate the filter reason on the flight
-            nextFlight.isMatch(flightFilter);
+        if (cheapestFlights > 0) {
+            completeQueueBestFirst();
+        } else if (isParallel) {
+            completeQueueInParallel();
+        } else {
+            List<PartialFlight> completedFlights = new ArrayList<>();
+            while (!constructionQueue.isEmpty() && !isStopped()){
+                PartialFlight nextFlight = constructionQueue.removeFirst();
+                sortFlight(nextFlight, completedFlights, filteredFlights, constructionQueue, joiningFlights);
+                addValidFlights(completedFlights);
+            }
+        }
+        completeJoiningFlights();
+        // A stopped search leaves flights behind which are discarded
+        constructionQueue.clear();
+
+        if (isParetoOptimal) {
+            validFlights.clear();
+            for (Flight thisFlight : paretoFront.flights())
+                addValidFlight(thisFlight);
+        }
+    }
+
+    /**
+     * Completes the construction queue in order of price until the requested number of valid flights is found. The
+     * flights left on the queue are discarded.
+     *
+     * @pre The flight filter is not empty
+     * @post The construction queue is empty
+     */
+    private void completeQueueBestFirst(){
+        PriorityQueue<RankedFlight> rankedQueue = new PriorityQueue<>();
+        long sequence = 0;
+        for (PartialFlight thisFlight : constructionQueue)
+            rankedQueue.add(new RankedFlight(thisFlight, sequence++));
+        constructionQueue.clear();
+
+        List<PartialFlight> completedFlights = new ArrayList<>();
+        List<PartialFlight> next = new ArrayList<>();
+        List<PartialFlight> joining = new ArrayList<>();
+        int foundFlights = 0;
+        while (!rankedQueue.isEmpty() && foundFlights < cheapestFlights && !isStopped()){
+            RankedFlight nextFlight = rankedQueue.poll();
+            if (!nextFlight.isPrefetched) prefetchCheapestLegs(nextFlight, rankedQueue);
+            sortFlight(nextFlight.flight, completedFlights, filteredFlights, next, joining);
+            // Joined flights are complete, so they are ranked with the other flights instead of being kept right away
+            for (PartialFlight thisFlight : joining)
+                next.addAll(joinFlight(thisFlight));
+            joining.clear();
+            for (PartialFlight thisFlight : next)
+                rankedQueue.add(new RankedFlight(thisFlight, sequence++));
+            next.clear();
 
-            // Check the filter reason
-            if (nextFlight.getFilterReason().isEmpty()){
-                enqueueFlight(nextFlight);
-            } else if (nextFlight.getFilterReason().equals("complete")){
-                validFlights.add(nextFlight);
-            } else if (nextFlight.getFilterReason().equals("invalid")){
-                // Do nothing, do not requeue this flight or derivatives
-            } else filteredFlights.add(nextFlight);
+            foundFlights += completedFlights.size();
+            addValidFlights(completedFlights);
         }
     }
 
+    /**
+     * Fetches the legs for a flight removed from a best first queue together with the legs for the next cheapest
+     * flights on the queue, so that the requests to the server are made concurrently. The other flights are left on
+     * the queue and are not fetched for again.
+     *
+     * @param nextFlight The flight removed from the queue
+     * @param rankedQueue The queue of the best first search
+     * @pre The flight filter is not empty
+     */
+    private void prefetchCheapestLegs(RankedFlight nextFlight, PriorityQueue<RankedFlight> rankedQueue){
+        List<RankedFlight> cheapest = new ArrayList<>();
+        cheapest.add(nextFlight);
+        while (cheapest.size() < Saps.SEARCH_PARALLELISM && !rankedQueue.isEmpty())
+            cheapest.add(rankedQueue.poll());
+
+        List<PartialFlight> flights = new ArrayList<>();
+        for (RankedFlight thisFlight : cheapest) {
+            thisFlight.isPrefetched = true;
+            flights.add(thisFlight.flight);
+        }
+        prefetchNextLegs(flights);
+        rankedQueue.addAll(cheapest.subList(1, cheapest.size()));
+    }
+
+    /**
+     * Adds completed flights to the list of valid flights. In pareto optimal mode they are added to the pareto front
+     * instead, where dominated flights are dropped.
+     *
+     * @param completedFlights Completed flights which match the filter, in queue order, which are removed
+     */
+    private void addValidFlights(List<PartialFlight> completedFlights){
+        for (PartialFlight thisFlight : completedFlights) {
+            if (isParetoOptimal)
+                paretoFront.add(thisFlight, "complete");
+            else
+                addValidFlight(thisFlight.toFlight("complete"));
+        }
+        completedFlights.clear();
+    }
+
+    /**
+     * Adds a flight to the list of valid flights and gives it to the listener
+     *
+     * @param flight A completed flight which matches the filter
+     */
+    private void addValidFlight(Flight flight){
+        validFlights.add(flight);
+        if (flightListener != null) flightListener.flightFound(flight);
+    }
+
+    /**
+     * Completes the construction queue one frontier level at a time. All of the flights on the queue are removed and
+     * split across the search pool, and the flights generated from them become the next frontier level.
+     *
+     * @pre The flight filter is not empty
+     * @post The construction queue is empty
+     */
+    private void completeQueueInParallel(){
+        while (!constructionQueue.isEmpty() && !isStopped()){
+            List<PartialFlight> frontier = new ArrayList<>(constructionQueue);
+            constructionQueue.clear();
+            prefetchNextLegs(frontier);
+
+            // Results are merged in queue order, so the lists match those of a sequential search
+            FrontierResult result = searchPool.invoke(new FrontierTask(frontier, 0, frontier.size()));
+            addValidFlights(result.valid);
+            filteredFlights.addAll(result.filtered);
+            constructionQueue.addAll(result.next);
+            joiningFlights.addAll(result.joining);
+        }
+    }
+
+    /**
+     * Adds the last leg to every flight that is one leg short of the layover limit. Each flight is extended with the
+     * legs at the other end of the flight that connect to it inside its layover window.
+     *
+     * @pre The flight filter is not empty
+     * @post The joining flights are sorted onto the valid and filtered lists and removed
+     */
+    private void completeJoiningFlights(){
+        List<PartialFlight> completedFlights = new ArrayList<>();
+        for (PartialFlight thisFlight : joiningFlights) {
+            if (isStopped()) break;
+            if (isDominated(thisFlight, false)) continue;
+
+            for (PartialFlight newFlight : joinFlight(thisFlight))
+                sortFinishedFlight(newFlight, filterReason(newFlight), completedFlights, filteredFlights);
+            addValidFlights(completedFlights);
+        }
+        joiningFlights.clear();
+    }
+
+    /**
+     * Creates copies of a flight with its last leg, one for each leg at the other end of the flight that connects to
+     * it inside its layover window
+     *
+     * @param oldFlight A flight which is one leg short of the layover limit
+     * @return [possibly empty] copies of the flight which reach the other end
+     * @pre The flight filter is not empty
+     */
+    private List<PartialFlight> joinFlight(PartialFlight oldFlight){
+        expansions.incrementAndGet();
+        List<PartialFlight> newFlights = new ArrayList<>();
+        LegWindow window = getNextLegWindow(oldFlight);
+        for (ReachabilityIndex.Connection leg : reachability.connectionsBetween(LegTable.airportId(window.airport), window.startMinute, window.endMinute))
+            newFlights.add(oldFlight.extend(leg.table, leg.row));
+        return newFlights;
+    }
+
+    /**
+     * Indexes the legs at the other end of the flights for every date that a flight within the layover limits could
+     * reach. If the UIModel specifies a departure date/time window, these are the legs disembarking at the arrival
+     * airport. If the UIModel specifies an arrival date/time window, these are the legs boarding at the departure airport.
+     *
+     * @return The index of the legs at the other end of the flights
+     * @pre The flight filter is not empty
+     */
+    private ReachabilityIndex buildReachabilityIndex(){
+        int startWindow = flightFilter.startFlightMinute();
+        int endWindow = flightFilter.endFlightMinute();
+        // The last leg connects at most one longest leg and one longest layover after each earlier leg
+        int span = flightFilter.numberOfLayovers() * (MAX_LEG_MINUTES + MAX_LAYOVER_MINUTES);
+        if (isAddedToEnd())
+            return new ReachabilityIndex(getOtherEndLegTables(startWindow, endWindow + span), true);
+        else
+            return new ReachabilityIndex(getOtherEndLegTables(startWindow - span, endWindow), false);
+    }
+
+    /**
+     * Gets the legs at the other end of the flights from the LocalFlightDatabase, fetching them concurrently.
+     * If the UIModel specifies a departure date/time window, these are the legs disembarking at the arrival airport.
+     * If the UIModel specifies an arrival date/time window, these are the legs boarding at the departure airport.
+     *
+     * @param startMinute The earliest time a last leg can board or disembark at the airport it connects at
+     * @param endMinute The latest time a last leg can board or disembark at the airport it connects at
+     * @return The tables holding every leg at the other end that could connect within the times
+     * @pre The flight filter is not empty
+     */
+    private List<LegTable> getOtherEndLegTables(int startMinute, int endMinute){
+        LocalFlightDatabase database = LocalFlightDatabase.getInstance();
+        Airport airport = isAddedToEnd() ? flightFilter.arrivalAirport() : flightFilter.departureAirport();
+        // A leg disembarks at most the longest leg duration after it boards
+        LocalDate firstDate = LegTable.dateOf(isAddedToEnd() ? startMinute : startMinute - MAX_LEG_MINUTES);
+        LocalDate lastDate = LegTable.dateOf(isAddedToEnd() ? endMinute + MAX_LEG_MINUTES : endMinute);
+
+        Set<LocalDate> dates = new TreeSet<>();
+        for (LocalDate date = firstDate; !date.isAfter(lastDate); date = date.plusDays(1))
+            dates.add(date);
+        Map<Airport, Set<LocalDate>> requests = Collections.singletonMap(airport, dates);
+        if (isAddedToEnd())
+            database.prefetchDisembarkingLegs(requests);
+        else
+            database.prefetchBoardingLegs(requests);
+
+        List<LegTable> tables = new ArrayList<>();
+        for (LocalDate date : dates)
+            tables.add(isAddedToEnd() ? database.getDisembarkingLegTable(airport, date, false)
+                    : database.getBoardingLegTable(airport, date, false));
+        return tables;
+    }
+
+    /**
+     * Checks a flight against the flight filter and places it on the matching list. If the flight is incomplete, its
+     * copies with an additional leg are placed on the list of flights under construction.
+     *
+     * @param flight Flight removed from the construction queue
+     * @param valid List of completed flights which match the filter
+     * @param filtered List of completable flights which do not match the filter
+     * @param next List of flights still under construction
+     * @param joining List of flights waiting for their last leg in bidirectional search mode
+     */
+    private void sortFlight(PartialFlight flight, List<PartialFlight> valid, Flights filtered, List<PartialFlight> next,
+                            List<PartialFlight> joining){
+        // Get the filter reason for the flight
+        String filterReason = filterReason(flight);
+
+        // Check the filter reason
+        if (filterReason.isEmpty()){
+            // A better flight may have been completed since this flight was queued
+            if (isDominated(flight, false)) return;
+            if (isJoined(flight)) joining.add(flight);
+            else next.addAll(expandFlight(flight));
+        } else sortFinishedFlight(flight, filterReason, valid, filtered);
+    }
+
+    /**
+     * Places a flight which will not be extended on the matching list
+     *
+     * @param flight Flight which is complete or filtered out
+     * @param filterReason The filter reason of the flight, which is not empty
+     * @param valid List of completed flights which match the filter
+     * @param filtered List of completable flights which do not match the filter
+     */
+    private void sortFinishedFlight(PartialFlight flight, String filterReason, List<PartialFlight> valid, Flights filtered){
+        if (filterReason.equals("complete")){
+            valid.add(flight);
+        } else if (filterReason.equals("invalid")){
+            // Do nothing, do not requeue this flight or derivatives
+        } else filtered.add(flight.toFlight(filterReason));
+    }
+
+    /**
+     * Compares a flight to the flight filter
+     *
+     * @param flight Flight under construction
+     * @return The filter reason, empty if the flight is incomplete but still valid
+     */
+    private String filterReason(PartialFlight flight){
+        return Flight.filterReason(flightFilter, isConnected(flight), flight.getNumberOfLayovers(),
+                flight.getFewestRemainingSeats(), flight.getFewestRemainingSeatsOfAnyType());
+    }
+
+    /**
+     * Check if a flight connects the departure airport to the arrival airport of the flight filter
+     *
+     * @param flight Flight under construction
+     * @return True if the flight departs from the departure airport and arrives at the arrival airport
+     */
+    private boolean isConnected(PartialFlight flight){
+        return flight.getDepartureAirportId() == LegTable.airportId(flightFilter.departureAirport())
+                && flight.getArrivalAirportId() == LegTable.airportId(flightFilter.arrivalAirport());
+    }
+
+    /**
+     * Check if a flight can still reach the other end of the flight within its remaining legs. Only flights with one
+     * leg left are checked against the index of the legs at the other end, flights with more legs left are kept.
+     *
+     * @param flight Flight under construction
+     * @return False if the flight can never be completed
+     * @pre The flight filter is not empty
+     */
+    private boolean isReachable(PartialFlight flight){
+        if (isConnected(flight)) return true;
+        int remainingLegs = flightFilter.numberOfLayovers() - flight.getNumberOfLayovers();
+        if (remainingLegs > 1) return true;
+        if (remainingLegs < 1) return false;
+
+        LegWindow window = getNextLegWindow(flight);
+        return reachability.isReachable(LegTable.airportId(window.airport), window.startMinute, window.endMinute);
+    }
+
     /**
      * Adds copies of a flight back to the construction queue with an additional leg.
      *
-     * @param oldFlight A flight which needs additional legs     *
-     * @pre The flight is copyable
+     * If the UIModel specifies a departure date/time window, then legs are added to the end of the flight.
+     * If the UIModel specifies an arrival date/time window, then legs are added to the beginning of the flight.
+     *
+     * @param oldFlight A flight which needs additional legs
+     * @pre The flight filter is not empty
      * @post Any newly generated copies are added to the construction queue
      */
      public void enqueueFlight(Flight oldFlight){
-         // Get the next possible set of legs for the flight
-         Legs newLegs = getValidNextLegs(oldFlight);
+         // Flights with legs left can only be joined or pruned against the legs at the other end
+         if ((isBidirectional || isPruned) && reachability == null && flightFilter.numberOfLayovers() > 0)
+             reachability = buildReachabilityIndex();
 
-        for (Leg thisLeg : newLegs) {
-            // Create a new copy of the flight
-            Flight copyFlight;
-            try{ copyFlight = oldFlight.clone();}
-            catch (CloneNotSupportedException E){return;}
+         // If the time window is for departure, add legs to the end of the flight, otherwise add them to the beginning
+         constructionQueue.addAll(expandFlight(PartialFlight.of(oldFlight, isAddedToEnd())));
+     }
 
-            addNewLegToFlight(thisLeg,copyFlight);
+    /**
+     * Creates copies of a flight with an additional leg, one for each candidate leg. Each copy shares the legs of
+     * the original flight.
+     *
+     * @param oldFlight A flight which needs additional legs
+     * @return [possibly empty] copies of the flight with one more leg
+     * @pre The flight filter is not empty
+     */
+     private List<PartialFlight> expandFlight(PartialFlight oldFlight){
+         expansions.incrementAndGet();
+         List<PartialFlight> newFlights = new ArrayList<>();
+         // Get the airport and time window of the next possible set of legs for the flight, which may span more than one date
+         LegWindow window = getNextLegWindow(oldFlight);
 
-            // Place the copy back on the queue for filtering and further additions
-            constructionQueue.add(copyFlight);
-        }
+         for (LocalDate date = window.firstDate(); !date.isAfter(window.lastDate()); date = date.plusDays(1)) {
+             LegTable newLegs = getLegTable(window.airport, date);
+
+             // Place a copy with each leg inside the window back on the queue for filtering and further additions
+             for (int row = newLegs.firstRowAtOrAfter(window.startMinute), end = newLegs.firstRowAfter(window.endMinute); row < end; row++) {
+                 PartialFlight newFlight = oldFlight.extend(newLegs, row);
+                 // Discard copies that can never reach the other end before their legs are fetched
+                 if (isPruned && reachability != null && !isReachable(newFlight)) continue;
+                 if (isDominated(newFlight, isConnected(newFlight))) continue;
+                 newFlights.add(newFlight);
+             }
+         }
+         return newFlights;
      }
 
     /**
-     *  Modifies a flight to include a new leg.
-     *  If the UIModel specifies a departure date/time window, then leg is added to the end of the flight.
-     *  If the UIModel specifies an arrival date/time window, then leg is added to the beginning of the flight.
+     * Fetches the legs for every flight in a frontier level that will be extended, so that the requests to the
+     * server are made concurrently instead of one at a time as each flight is expanded.
      *
-     * @param newLeg Leg to be added to the flight
-     * @param flight Flight to be modified
-     * @pre The leg is a valid next addition to the flight and the flight filter is not empty
-     * @post The leg has been added to the correct end of the flight
+     * @param frontier Flights removed from the construction queue
+     * @pre The flight filter is not empty
      */
-     private void addNewLegToFlight(Leg newLeg, Flight flight){
-         // If the time window is for departure, add the leg to the end of the copy
-         if (flightFilter.timeType().equals(Saps.TIME_WINDOW_TYPES.get(0)))
-             flight.addLegToEnd(newLeg);
-             // If the time window is for arrival, add the leg to the beggining of the copy
-         else
-             flight.addLegToBeginning(newLeg);
-     }
+    private void prefetchNextLegs(List<PartialFlight> frontier){
+        Map<Airport, Set<LocalDate>> requests = new HashMap<>();
+        for (PartialFlight thisFlight : frontier) {
+            if (!filterReason(thisFlight).isEmpty() || isJoined(thisFlight)) continue;
+
+            LegWindow window = getNextLegWindow(thisFlight);
+            Set<LocalDate> dates = requests.computeIfAbsent(window.airport, airport -> new TreeSet<>());
+            for (LocalDate date = window.firstDate(); !date.isAfter(window.lastDate()); date = date.plusDays(1))
+                dates.add(date);
+        }
+
+        if (isAddedToEnd())
+            LocalFlightDatabase.getInstance().prefetchBoardingLegs(requests);
+        else
+            LocalFlightDatabase.getInstance().prefetchDisembarkingLegs(requests);
+    }
 
     /**
-     *  Searches for candidate legs that can be added to a flight.
+     *  Gets the stored legs for an airport and date from the LocalFlightDatabase.
      *  If the UIModel specifies a departure date/time window, then boarding legs are vetted.
      *  If the UIModel specifies an arrival date/time window, then disembarking legs are vetted.
      *
-     * @param flight Flight to use as validation for candidates
-     * @return Legs that have the correct boarding or disembarking airport and the correct boarding or disembarking time
+     * @param airport The boarding or disembarking airport of the legs
+     * @param date The boarding or disembarking date of the legs
+     * @return Legs that have the boarding or disembarking airport and date, sorted by boarding or disembarking time
+     * @throws java.util.concurrent.CompletionException If the legs could not be obtained from the server
      * @pre The flight filter is not empty
      */
-     private Legs getValidNextLegs(Flight flight){
-         // If the time window is for departure, get legs based on boarding airport and boarding data
-         if (flightFilter.timeType().equals(Saps.TIME_WINDOW_TYPES.get(0)))
-             return getValidBoardingLegs(flight);
+     private LegTable getLegTable(Airport airport, LocalDate date){
+         CompletableFuture<LegTable> legs;
+         // If the time window is for departure, get legs based on boarding airport and boarding date
+         if (isAddedToEnd())
+             legs = LocalFlightDatabase.getInstance().requestBoardingLegs(airport, date, false);
              // If the time window is for arrival, get legs based on disembarking airport and disembarking date
          else
-             return getValidArrivingLegs(flight);
+             legs = LocalFlightDatabase.getInstance().requestDisembarkingLegs(airport, date, false);
+
+         // Let the search pool start another worker while this one waits for the server
+         try {
+             ForkJoinPool.managedBlock(new LegsBlocker(legs));
+         } catch (InterruptedException e) {
+             Thread.currentThread().interrupt();
+             throw new CompletionException(e);
+         }
+         return legs.join();
      }
 
     /**
-     * Determines the next boarding airport and boarding dates, then gets all legs that match these parameters from the
-     * LocalFlightDatabase. Also determines the time window for boarding and returns only legs inside this window.
+     * Check if the next leg of a flight is found by a join instead of by expanding the flight
+     *
+     * @param flight Flight under construction which is still valid
+     * @return True in bidirectional search mode if the next leg of the flight uses its last layover
+     * @pre The flight filter is not empty
+     */
+    private boolean isJoined(PartialFlight flight){
+        return isBidirectional && flight.getDepartureAirport() != null
+                && flight.getNumberOfLayovers() + 1 >= flightFilter.numberOfLayovers();
+    }
+
+    /**
+     * Check if a flight can be discarded because every flight built from it is dominated by a completed flight
+     *
+     * @param flight Flight under construction
+     * @param isComplete True if no legs will be added to the flight
+     * @return True in pareto optimal mode if the flight is dominated
+     */
+    private boolean isDominated(PartialFlight flight, boolean isComplete){
+        return isParetoOptimal && flight.getDepartureAirport() != null && paretoFront.isDominated(flight, isComplete);
+    }
+
+    /**
+     * Check the direction that flights are built in
+     *
+     * @return True if the time window is for departure and legs are added to the end of flights
+     * @pre The flight filter is not empty
+     */
+    private boolean isAddedToEnd(){
+        return flightFilter.timeType().equals(Saps.TIME_WINDOW_TYPES.get(0));
+    }
+
+    /**
+     * Determines the airport and time window of the candidate legs for a flight.
+     * If the UIModel specifies a departure date/time window, this is the next boarding airport and boarding window.
+     * If the UIModel specifies an arrival date/time window, this is the next disembarking airport and disembarking window.
+     *
+     * @param flight Flight to use as validation for candidates
+     * @return The airport and time window that candidate legs must board or disembark in
+     * @pre The flight filter is not empty
+     */
+    private LegWindow getNextLegWindow(PartialFlight flight){
+        if (isAddedToEnd())
+            return getBoardingWindow(flight);
+        else
+            return getArrivingWindow(flight);
+    }
+
+    /**
+     * Determines the next boarding airport and boarding time window for a flight.
      *
      * @param oldFlight A flight which has not yet connected to its destination
-     * @return All legs that are potential candidates for addition to the given flight
+     * @return The airport and window that potential candidates for addition to the given flight board in
      * @pre the flight filter is not empty
      */
-     private Legs getValidBoardingLegs(Flight oldFlight){
+     private LegWindow getBoardingWindow(PartialFlight oldFlight){
          // Use the flight filter airport and time window by default
         Airport boardingAirport = flightFilter.departureAirport();
-        ZonedDateTime startBoardingWindow = flightFilter.startFlightDateTime();
-        ZonedDateTime endBoardingWindow = flightFilter.endFlightDateTime();
+        int startBoardingWindow = flightFilter.startFlightMinute();
+        int endBoardingWindow = flightFilter.endFlightMinute();
 
         // If there are already legs on the flight, use airport and time window based on the last leg of the flight
         if (oldFlight.getArrivalAirport() != null) {
             boardingAirport = oldFlight.getArrivalAirport();
-            startBoardingWindow = oldFlight.getArrivalTime().plus(Saps.MIN_LAYOVER_TIME);
-            endBoardingWindow = startBoardingWindow.plus(Saps.MAX_LAYOVER_TIME.minus(Saps.MIN_LAYOVER_TIME));
+            startBoardingWindow = oldFlight.getArrivalMinute() + MIN_LAYOVER_MINUTES;
+            endBoardingWindow = startBoardingWindow + (MAX_LAYOVER_MINUTES - MIN_LAYOVER_MINUTES);
         }
 
-         // Get legs from the boarding airport and the start time date
-        Legs potentialNewLegs = LocalFlightDatabase.getInstance().getBoardingLegList(boardingAirport,startBoardingWindow.toLocalDate(),false);
-         // If the end time is on the next day get legs from that date too
-         if (startBoardingWindow.toLocalDate().compareTo(endBoardingWindow.toLocalDate()) < 0) {
-             Legs extraLegs = LocalFlightDatabase.getInstance().getBoardingLegList(boardingAirport, endBoardingWindow.toLocalDate(), false);
-             if (extraLegs.size() > 0) potentialNewLegs.addAll(extraLegs);
-         }
-
-         // Save and then remove legs that are outside the valid time window
-        Legs invalidNewLegs = new Legs();
-         for (Leg thisLeg : potentialNewLegs) {
-             if (thisLeg.getBoardingTime().isBefore(startBoardingWindow) || thisLeg.getBoardingTime().isAfter(endBoardingWindow))
-                 invalidNewLegs.add(thisLeg);
-         }
-         if (invalidNewLegs.size() > 0)
-                 for (Leg thisLeg : invalidNewLegs) potentialNewLegs.remove(thisLeg);
-
-        return potentialNewLegs;
+        // The window may span more than one date
+        return new LegWindow(boardingAirport, startBoardingWindow, endBoardingWindow);
      }
 
     /**
-     * Determines the next disembarking airport and disembarking dates, then gets all legs that match these parameters
-     * from the LocalFlightDatabase. Also determines the time window for previous arrivals and returns only legs inside
-     * this window.
+     * Determines the next disembarking airport and disembarking time window for a flight.
      *
      * @param oldFlight A flight which has not yet connected to its origin
-     * @return All legs that are potential candidates for addition to the given flight
+     * @return The airport and window that potential candidates for addition to the given flight disembark in
      * @pre the flight filter is not empty
      */
-    private Legs getValidArrivingLegs(Flight oldFlight) {
+    private LegWindow getArrivingWindow(PartialFlight oldFlight) {
         // Use the flight filter airport and time window by default
         Airport disembarkingAirport = flightFilter.arrivalAirport();
-        ZonedDateTime startDisembarkingWindow = flightFilter.startFlightDateTime();
-        ZonedDateTime endDisembarkingWindow = flightFilter.endFlightDateTime();
+        int startDisembarkingWindow = flightFilter.startFlightMinute();
+        int endDisembarkingWindow = flightFilter.endFlightMinute();
 
         // If there are already legs on the flight, use airport and time window based on the first leg of the flight
         if (oldFlight.getDepartureAirport() != null) {
             disembarkingAirport = oldFlight.getDepartureAirport();
-            endDisembarkingWindow = oldFlight.getDepartureTime().minus(Saps.MIN_LAYOVER_TIME);
-            startDisembarkingWindow = endDisembarkingWindow.minus(Saps.MAX_LAYOVER_TIME.minus(Saps.MIN_LAYOVER_TIME));
+            endDisembarkingWindow = oldFlight.getDepartureMinute() - MIN_LAYOVER_MINUTES;
+            startDisembarkingWindow = endDisembarkingWindow - (MAX_LAYOVER_MINUTES - MIN_LAYOVER_MINUTES);
         }
 
-        // Get legs from the disembarking airport and the start time date
-        Legs potentialNewLegs = LocalFlightDatabase.getInstance().getDisembarkingLegList(disembarkingAirport, startDisembarkingWindow.toLocalDate(), false);
-        // If the end time is on the next day get legs from that date too
-        if (startDisembarkingWindow.toLocalDate().compareTo(endDisembarkingWindow.toLocalDate()) < 0) {
-            Legs extraLegs = LocalFlightDatabase.getInstance().getDisembarkingLegList(disembarkingAirport, endDisembarkingWindow.toLocalDate(), false);
-            if (extraLegs.size() > 0) potentialNewLegs.addAll(extraLegs);
+        // The window may span more than one date
+        return new LegWindow(disembarkingAirport, startDisembarkingWindow, endDisembarkingWindow);
+    }
+
+    /** Airport and inclusive time window in minutes since the epoch that candidate legs for a flight must board or disembark in */
+    private static class LegWindow {
+        private final Airport airport;
+        private final int startMinute;
+        private final int endMinute;
+
+        private LegWindow(Airport airport, int startMinute, int endMinute){
+            this.airport = airport;
+            this.startMinute = startMinute;
+            this.endMinute = endMinute;
         }
 
-        // Save and then remove legs that are outside the valid time window
-        Legs invalidNewLegs = new Legs();
-        for (Leg thisLeg : potentialNewLegs) {
-            if (thisLeg.getDisembarkingTime().isBefore(startDisembarkingWindow) || thisLeg.getDisembarkingTime().isAfter(endDisembarkingWindow))
-                invalidNewLegs.add(thisLeg);
+        /** @return The GMT date of the beginning of the window */
+        private LocalDate firstDate(){ return LegTable.dateOf(startMinute); }
+
+        /** @return The GMT date of the end of the window */
+        private LocalDate lastDate(){ return LegTable.dateOf(endMinute); }
+    }
+
+    /** Waits for legs to be obtained from the server without holding up the other workers of the search pool */
+    private static class LegsBlocker implements ForkJoinPool.ManagedBlocker {
+        private final CompletableFuture<LegTable> legs;
+        /** Counted down when the legs are obtained or fail, so waiting does not go through the future's own blocker */
+        private final CountDownLatch done = new CountDownLatch(1);
+
+        private LegsBlocker(CompletableFuture<LegTable> legs){
+            this.legs = legs;
+            legs.whenComplete((table, failure) -> done.countDown());
+        }
+
+        @Override
+        public boolean block() throws InterruptedException {
+            done.await();
+            return true;
         }
-        if (invalidNewLegs.size() > 0)
-            for (Leg thisLeg : invalidNewLegs) potentialNewLegs.remove(thisLeg);
 
-        return potentialNewLegs;
+        /** @return True if the legs are already stored, so no worker needs to be added */
+        @Override
+        public boolean isReleasable(){ return legs.isDone(); }
+    }
+
+    /** A flight on the queue of a best first search, ranked by price and then by the order it was queued */
+    private static class RankedFlight implements Comparable<RankedFlight> {
+        private final PartialFlight flight;
+        /** Flights without a price are ranked after every other flight */
+        private final long cents;
+        private final long sequence;
+        /** True once the legs for extending the flight have been fetched */
+        private boolean isPrefetched = false;
+
+        private RankedFlight(PartialFlight flight, long sequence){
+            this.flight = flight;
+            this.cents = flight.getTotalCents() == LegTable.NO_PRICE ? Long.MAX_VALUE : flight.getTotalCents();
+            this.sequence = sequence;
+        }
+
+        @Override
+        public int compareTo(RankedFlight other){
+            int result = Long.compare(cents, other.cents);
+            return result != 0 ? result : Long.compare(sequence, other.sequence);
+        }
+    }
+
+    /** Flights produced by processing a slice of a frontier level, kept in queue order */
+    private static class FrontierResult {
+        private final List<PartialFlight> valid = new ArrayList<>();
+        private final Flights filtered = new Flights();
+        private final List<PartialFlight> next = new ArrayList<>();
+        private final List<PartialFlight> joining = new ArrayList<>();
+
+        /**
+         * Appends the results of the following slice of the frontier
+         *
+         * @param other Results of the slice directly after this one
+         * @return This result with the other result appended
+         */
+        private FrontierResult append(FrontierResult other){
+            valid.addAll(other.valid);
+            filtered.addAll(other.filtered);
+            next.addAll(other.next);
+            joining.addAll(other.joining);
+            return this;
+        }
+    }
+
+    /** Fork-join task which processes a slice of a frontier level, splitting it in half until it is small enough */
+    private class FrontierTask extends RecursiveTask<FrontierResult> {
+        private static final long serialVersionUID = 1L;
+        private final List<PartialFlight> frontier;
+        private final int start;
+        private final int end;
+
+        private FrontierTask(List<PartialFlight> frontier, int start, int end){
+            this.frontier = frontier;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected FrontierResult compute(){
+            if (end - start <= FRONTIER_SPLIT_THRESHOLD) {
+                FrontierResult result = new FrontierResult();
+                // A stopped search drops the rest of the slice
+                for (int i = start; i < end && !isStopped(); i++)
+                    sortFlight(frontier.get(i), result.valid, result.filtered, result.next, result.joining);
+                return result;
+            }
+
+            int middle = (start + end) / 2;
+            FrontierTask firstHalf = new FrontierTask(frontier, start, middle);
+            FrontierTask secondHalf = new FrontierTask(frontier, middle, end);
+            firstHalf.fork();
+            FrontierResult secondResult = secondHalf.compute();
+            return firstHalf.join().append(secondResult);
+        }
     }
 }
@@ -1,44 +1,110 @@
 package flight;
 
-import flight.Flight;
+import leg.LegTable;
 
-import java.time.Duration;
-import java.time.temporal.TemporalAmount;
+import java.time.ZonedDateTime;
 import java.util.ArrayList;
-import java.util.Collections;
-
-import static java.time.temporal.ChronoUnit.MINUTES;
+import java.util.Arrays;
+import java.util.Comparator;
 
 /**
  * This class extends ArrayList and is an aggregate of Flight objects. Sorts flights based on user selection.
  *
+ * Sorting computes the sort keys of each flight once and then performs a stable O(n log n) sort, so flights with
+ * equal keys keep their relative order. Flights can be sorted by several keys at once, where each key after the
+ * first only orders flights that are equal on every key before it.
+ *
  * @author William Keenan
- * @version 1.0 2020-05-06
+ * @version 1.1 2026-10-18
  * @since 2020-05-03
  *
  */
 public class Flights extends ArrayList<Flight> {
     private static final long serialVersionUID = 1L;
 
+    /** The attributes of a flight that flights can be sorted by */
+    public enum SortKey {
+        /** Total price of the flight for its seating type */
+        PRICE,
+        /** Time from the departure of the first leg to the arrival of the last leg */
+        TRAVEL_DURATION,
+        /** Departure time of the first leg */
+        DEPARTURE_TIME,
+        /** Arrival time of the last leg */
+        ARRIVAL_TIME;
+
+        /**
+         * Computes the value of this key for a flight
+         *
+         * @param flight The flight
+         * @return The value of the key, where flights without a value sort after all other flights
+         */
+        long valueOf(Flight flight) {
+            if (flight.legList().isEmpty()) return Long.MAX_VALUE;
+            switch (this) {
+                case PRICE:
+                    long totalCents = flight.getTotalCents();
+                    return totalCents == LegTable.NO_PRICE ? Long.MAX_VALUE : totalCents;
+                case TRAVEL_DURATION:
+                    return flight.getTotalTravelTime().getSeconds();
+                case DEPARTURE_TIME:
+                    return epochSecondOf(flight.getDepartureTime());
+                default:
+                    return epochSecondOf(flight.getArrivalTime());
+            }
+        }
+
+        private static long epochSecondOf(ZonedDateTime time) {
+            return time == null ? Long.MAX_VALUE : time.toEpochSecond();
+        }
+    }
+
+    /** A flight with its sort keys, computed once before sorting */
+    private static class KeyedFlight {
+        private final Flight flight;
+        private final long[] keys;
+
+        private KeyedFlight(Flight flight, SortKey[] sortKeys) {
+            this.flight = flight;
+            keys = new long[sortKeys.length];
+            for (int i = 0; i < sortKeys.length; i++)
+                keys[i] = sortKeys[i].valueOf(flight);
+        }
+    }
+
+    /** Orders keyed flights by their first key, then each following key */
+    private static final Comparator<KeyedFlight> BY_KEYS = (flight1, flight2) -> {
+        for (int i = 0; i < flight1.keys.length; i++) {
+            int result = Long.compare(flight1.keys[i], flight2.keys[i]);
+            if (result != 0) return result;
+        }
+        return 0;
+    };
+
+    /**
+     * Method to sort by one or more keys
+     *
+     * @param isAscending Boolean to determine sorting order
+     * @param sortKeys The keys to sort by, in order of priority
+     */
+    public void sortBy(boolean isAscending, SortKey... sortKeys) {
+        KeyedFlight[] keyedFlights = new KeyedFlight[size()];
+        for (int i = 0; i < keyedFlights.length; i++)
+            keyedFlights[i] = new KeyedFlight(get(i), sortKeys);
+
+        // Arrays.sort is stable for objects, so flights with equal keys keep their order in either direction
+        Arrays.sort(keyedFlights, isAscending ? BY_KEYS : BY_KEYS.reversed());
+        for (int i = 0; i < keyedFlights.length; i++)
+            set(i, keyedFlights[i].flight);
+    }
+
     /**
      * Method to sort by cheapest Flight
      *
      * @param isAscending Boolean to determine sorting order
      */
     public void sortByPrice(boolean isAscending) {
-        Flights newFlights = new Flights();
-        while (this.size() > 0) {
-            Flight cheapestFlight = this.get(0);
-            for (int i = this.size() - 1; i >= 0; i--) {
-                if (this.get(i).getTotalPrice().compareTo(cheapestFlight.getTotalPrice()) < 0) {
-                    cheapestFlight = this.get(i);
-                }
-            }
-            this.remove(cheapestFlight);
-            newFlights.add(cheapestFlight);
-        }
-        this.addAll(newFlights);
-        if (!isAscending) Collections.reverse(this);
+        sortBy(isAscending, SortKey.PRICE);
     }
 
     /**
@@ -47,19 +113,7 @@ public class Flights extends ArrayList<Flight> {
      * @param isAscending Boolean to determine sorting order
      */
     public void sortByTravelDuration(boolean isAscending) {
-        Flights newFlights = new Flights();
-        while (this.size() > 0) {
-            Flight shortestFlight = this.get(0);
-            for (int i = this.size() - 1; i >= 0; i--) {
-                if (this.get(i).getTotalTravelTime().minus(shortestFlight.getTotalTravelTime()).isNegative()){
-                    shortestFlight = this.get(i);
-                }
-            }
-            this.remove(shortestFlight);
-            newFlights.add(shortestFlight);
-        }
-        this.addAll(newFlights);
-        if (!isAscending) Collections.reverse(this);
+        sortBy(isAscending, SortKey.TRAVEL_DURATION);
     }
 
     /**
@@ -68,20 +122,7 @@ public class Flights extends ArrayList<Flight> {
      * @param isAscending Boolean to determine sorting order
      */
     public void sortByDepatureTime(boolean isAscending) {
-        Flights newFlights = new Flights();
-        while (this.size() > 0) {
-            Flight earliestFlight = this.get(0);
-            for (int i = this.size() - 1; i >=0; i--) {
-                if (this.get(i).getDepartureTime().compareTo(earliestFlight.getDepartureTime()) < 0)
-                {
-                    earliestFlight = this.get(i);
-                }
-            }
-            this.remove(earliestFlight);
-            newFlights.add(earliestFlight);
-        }
-        this.addAll(newFlights);
-        if (!isAscending) Collections.reverse(this);
+        sortBy(isAscending, SortKey.DEPARTURE_TIME);
     }
 
     /**
@@ -90,18 +131,6 @@ public class Flights extends ArrayList<Flight> {
      * @param isAscending Boolean to determine sorting order
      */
     public void sortByArrivalTime(boolean isAscending) {
-        Flights newFlights = new Flights();
-        while (this.size() > 0) {
-            Flight earliestFlight = this.get(0);
-            for (int i = this.size() - 1; i >= 0; i--) {
-                if (this.get(i).getArrivalTime().compareTo(earliestFlight.getArrivalTime()) < 0) {
-                    earliestFlight = this.get(i);
-                }
-            }
-            this.remove(earliestFlight);
-            newFlights.add(earliestFlight);
-        }
-        this.addAll(newFlights);
-        if (!isAscending) Collections.reverse(this);
+        sortBy(isAscending, SortKey.ARRIVAL_TIME);
     }
 }
\ No newline at end of file
@@ -0,0 +1,122 @@
+package flight;
+
+import leg.LegTable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The completed flights of a search that are not dominated by any other completed flight.
+ *
+ * A flight dominates another if it is no worse in total price, travel time and number of layovers, and better in at
+ * least one of them. Flights that tie on all three are both kept. A flight without a price can not be compared, so it
+ * is always kept and never dominates another flight.
+ *
+ * Partial flights only get more expensive, longer and gain layovers as legs are added, so a partial flight can be
+ * discarded as soon as its current totals are dominated. The front is small, so it is searched linearly. It is not
+ * thread-safe, but it may be read from several threads while no flight is being added.
+ *
+ * @author agent
+ * @version 1.0 2026-10-18
+ * @since 2026-10-18
+ *
+ */
+class ParetoFront {
+    /** Flights on the front, in the order they were added */
+    private final List<Entry> entries = new ArrayList<>();
+
+    /**
+     * Check if every flight that can be built from a partial flight is dominated by a flight on the front
+     *
+     * @param flight The partial flight
+     * @param isComplete True if no legs will be added to the flight, false if at least one more leg will be added
+     * @return True if the flight can be discarded
+     */
+    boolean isDominated(PartialFlight flight, boolean isComplete) {
+        // A flight that is extended gains at least one more layover
+        int layovers = isComplete ? flight.getNumberOfLayovers() : flight.getNumberOfLayovers() + 1;
+        return isDominated(flight.getTotalCents(), travelMinutes(flight), layovers);
+    }
+
+    /**
+     * Adds a completed flight to the front, removing the flights it dominates
+     *
+     * @param flight The completed flight
+     * @param filterReason The filter reason of the flight
+     * @return True if the flight was added, false if it is dominated by a flight on the front
+     */
+    boolean add(PartialFlight flight, String filterReason) {
+        Entry newEntry = new Entry(flight.getTotalCents(), travelMinutes(flight), flight.getNumberOfLayovers(), flight.toFlight(filterReason));
+        if (isDominated(newEntry.cents, newEntry.minutes, newEntry.layovers)) return false;
+        entries.removeIf(entry -> dominates(newEntry, entry.cents, entry.minutes, entry.layovers));
+        entries.add(newEntry);
+        return true;
+    }
+
+    /**
+     * Get the flights on the front
+     *
+     * @return The flights in the order they were added
+     */
+    Flights flights() {
+        Flights flights = new Flights();
+        for (Entry entry : entries)
+            flights.add(entry.flight);
+        return flights;
+    }
+
+    /**
+     * Check if a flight on the front dominates totals
+     *
+     * @param cents Total price in cents, or NO_PRICE
+     * @param minutes Travel time in minutes
+     * @param layovers Number of layovers
+     * @return True if a flight on the front dominates the totals
+     */
+    private boolean isDominated(long cents, int minutes, int layovers) {
+        for (Entry entry : entries)
+            if (dominates(entry, cents, minutes, layovers)) return true;
+        return false;
+    }
+
+    /**
+     * Check if a flight dominates totals
+     *
+     * @param entry The flight
+     * @param cents Total price in cents, or NO_PRICE
+     * @param minutes Travel time in minutes
+     * @param layovers Number of layovers
+     * @return True if the flight is no worse in every total and better in at least one
+     */
+    private static boolean dominates(Entry entry, long cents, int minutes, int layovers) {
+        if (entry.cents == LegTable.NO_PRICE || cents == LegTable.NO_PRICE) return false;
+        boolean isNoWorse = entry.cents <= cents && entry.minutes <= minutes && entry.layovers <= layovers;
+        boolean isBetter = entry.cents < cents || entry.minutes < minutes || entry.layovers < layovers;
+        return isNoWorse && isBetter;
+    }
+
+    /**
+     * Get the travel time of a partial flight
+     *
+     * @param flight The partial flight
+     * @return Minutes from the departure of the first leg to the arrival of the last leg
+     */
+    private static int travelMinutes(PartialFlight flight) {
+        return flight.getArrivalMinute() - flight.getDepartureMinute();
+    }
+
+    /** A flight on the front with its totals */
+    private static class Entry {
+        private final long cents;
+        private final int minutes;
+        private final int layovers;
+        private final Flight flight;
+
+        private Entry(long cents, int minutes, int layovers, Flight flight) {
+            this.cents = cents;
+            this.minutes = minutes;
+            this.layovers = layovers;
+            this.flight = flight;
+        }
+    }
+}
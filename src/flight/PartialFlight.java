@@ -0,0 +1,264 @@
+package flight;
+
+import airport.Airport;
+import leg.LegTable;
+import leg.Legs;
+
+import java.time.ZonedDateTime;
+import java.util.Collections;
+
+/**
+ * An immutable flight under construction, stored as a chain of rows of leg tables.
+ *
+ * Each partial flight holds only its newest leg and a reference to the partial flight it was extended from, so every
+ * copy made during a search shares all of its older legs with its parent instead of copying them. If the flight is
+ * built from its departure, new legs are added to the end of the flight. If the flight is built from its arrival, new
+ * legs are added to the beginning of the flight. Only completed flights are materialized into a Flight.
+ *
+ * The endpoints, remaining seats and price of the flight are kept up to date as legs are added, so a partial flight
+ * can be compared to a UIModel without visiting its legs.
+ *
+ * @author agent
+ * @version 1.0 2026-10-18
+ * @since 2026-10-18
+ *
+ */
+class PartialFlight {
+    /** The table holding the newest leg of the flight, null if the flight has no legs */
+    private final LegTable newestTable;
+    /** The row of the newest leg in its table */
+    private final int newestRow;
+    /** The flight this one was extended from, null if the flight has no legs */
+    private final PartialFlight parent;
+    /** The number of legs in the flight */
+    private final int size;
+    /** True if legs are added to the end of the flight, false if they are added to the beginning */
+    private final boolean isAddedToEnd;
+    /** The seating type for the flight */
+    private final String seatingType;
+    /** The boarding airport of the first leg, null if the flight has no legs */
+    private final Airport departureAirport;
+    /** The disembarking airport of the last leg, null if the flight has no legs */
+    private final Airport arrivalAirport;
+    /** The id of the departure airport */
+    private final int departureAirportId;
+    /** The id of the arrival airport */
+    private final int arrivalAirportId;
+    /** The boarding time of the first leg as minutes since the epoch */
+    private final int departureMinute;
+    /** The disembarking time of the last leg as minutes since the epoch */
+    private final int arrivalMinute;
+    /** The fewest remaining seats of the seating type on any leg */
+    private final int fewestRemainingSeats;
+    /** The fewest remaining seats on any leg, counting the seating type with the most seats remaining on each leg */
+    private final int fewestRemainingSeatsOfAnyType;
+    /** The total price of the legs for the seating type in cents, or NO_PRICE if a leg has no price */
+    private final long totalCents;
+
+    /**
+     * Constructor for a partial flight with an additional leg
+     *
+     * @param newestTable The table holding the leg added to the flight
+     * @param newestRow The row of the leg added to the flight
+     * @param parent The flight being extended
+     */
+    private PartialFlight(LegTable newestTable, int newestRow, PartialFlight parent) {
+        this.newestTable = newestTable;
+        this.newestRow = newestRow;
+        this.parent = parent;
+        this.size = parent.size + 1;
+        this.isAddedToEnd = parent.isAddedToEnd;
+        this.seatingType = parent.seatingType;
+
+        // The end of the flight the leg is added to moves, the other end stays with the oldest leg
+        boolean isFirstLeg = parent.size == 0;
+        if (isAddedToEnd || isFirstLeg) {
+            arrivalAirport = newestTable.disembarkingAirport(newestRow);
+            arrivalAirportId = newestTable.disembarkingAirportId(newestRow);
+            arrivalMinute = newestTable.disembarkingMinute(newestRow);
+        } else {
+            arrivalAirport = parent.arrivalAirport;
+            arrivalAirportId = parent.arrivalAirportId;
+            arrivalMinute = parent.arrivalMinute;
+        }
+        if (!isAddedToEnd || isFirstLeg) {
+            departureAirport = newestTable.boardingAirport(newestRow);
+            departureAirportId = newestTable.boardingAirportId(newestRow);
+            departureMinute = newestTable.boardingMinute(newestRow);
+        } else {
+            departureAirport = parent.departureAirport;
+            departureAirportId = parent.departureAirportId;
+            departureMinute = parent.departureMinute;
+        }
+
+        fewestRemainingSeats = Math.min(parent.fewestRemainingSeats, newestTable.remainingSeats(newestRow, seatingType));
+        fewestRemainingSeatsOfAnyType = Math.min(parent.fewestRemainingSeatsOfAnyType, newestTable.mostRemainingSeats(newestRow));
+        long legCents = newestTable.cents(newestRow, seatingType);
+        totalCents = parent.totalCents == LegTable.NO_PRICE || legCents == LegTable.NO_PRICE
+                ? LegTable.NO_PRICE : parent.totalCents + legCents;
+    }
+
+    /**
+     * Constructor for a partial flight without any legs
+     *
+     * @param seatingType The seating type of the flight
+     * @param isAddedToEnd True if legs are added to the end of the flight, false if they are added to the beginning
+     */
+    private PartialFlight(String seatingType, boolean isAddedToEnd) {
+        this.newestTable = null;
+        this.newestRow = 0;
+        this.parent = null;
+        this.size = 0;
+        this.isAddedToEnd = isAddedToEnd;
+        this.seatingType = seatingType;
+        this.departureAirport = null;
+        this.arrivalAirport = null;
+        this.departureAirportId = LegTable.NO_AIRPORT;
+        this.arrivalAirportId = LegTable.NO_AIRPORT;
+        this.departureMinute = 0;
+        this.arrivalMinute = 0;
+        this.fewestRemainingSeats = Integer.MAX_VALUE;
+        this.fewestRemainingSeatsOfAnyType = Integer.MAX_VALUE;
+        this.totalCents = 0;
+    }
+
+    /**
+     * Creates a partial flight with the same legs and seating type as a flight
+     *
+     * @param flight The flight to copy, with its legs in order from departure to arrival
+     * @param isAddedToEnd True if legs are added to the end of the flight, false if they are added to the beginning
+     * @return A partial flight with the legs of the flight
+     */
+    static PartialFlight of(Flight flight, boolean isAddedToEnd) {
+        PartialFlight partialFlight = new PartialFlight(flight.getSeatingType(), isAddedToEnd);
+        Legs legs = flight.legList();
+        if (legs.isEmpty()) return partialFlight;
+
+        // The legs of a flight board in order, so the rows of the table are in the same order as the legs
+        LegTable flightTable = LegTable.byBoardingTime(legs);
+        if (isAddedToEnd)
+            for (int row = 0; row < flightTable.size(); row++) partialFlight = partialFlight.extend(flightTable, row);
+        else
+            for (int row = flightTable.size() - 1; row >= 0; row--) partialFlight = partialFlight.extend(flightTable, row);
+        return partialFlight;
+    }
+
+    /**
+     * Creates a copy of this flight with an additional leg. The copy shares all of the legs of this flight.
+     *
+     * @param table The table holding the leg to add to the end or beginning of the flight
+     * @param row The row of the leg in the table
+     * @return A new partial flight with the additional leg
+     */
+    PartialFlight extend(LegTable table, int row) {
+        return new PartialFlight(table, row, this);
+    }
+
+    /**
+     * Get the departure airport of the flight
+     *
+     * @return [possibly null] The departure airport of the first leg
+     */
+    Airport getDepartureAirport() { return departureAirport; }
+
+    /**
+     * Get the arrival airport of the flight
+     *
+     * @return [possibly null] The arrival airport of the last leg
+     */
+    Airport getArrivalAirport() { return arrivalAirport; }
+
+    /**
+     * Get the id of the departure airport of the flight
+     *
+     * @return The id of the departure airport, or NO_AIRPORT if the flight has no legs
+     */
+    int getDepartureAirportId() { return departureAirportId; }
+
+    /**
+     * Get the id of the arrival airport of the flight
+     *
+     * @return The id of the arrival airport, or NO_AIRPORT if the flight has no legs
+     */
+    int getArrivalAirportId() { return arrivalAirportId; }
+
+    /**
+     * Get the departure time of the flight
+     *
+     * @return The boarding time of the first leg as minutes since the epoch
+     * @pre The flight has legs
+     */
+    int getDepartureMinute() { return departureMinute; }
+
+    /**
+     * Get the arrival time of the flight
+     *
+     * @return The disembarking time of the last leg as minutes since the epoch
+     * @pre The flight has legs
+     */
+    int getArrivalMinute() { return arrivalMinute; }
+
+    /**
+     * Get the departure time of the flight
+     *
+     * @return [possibly null] The boarding time of the first leg
+     */
+    ZonedDateTime getDepartureTime() { return size > 0 ? LegTable.timeOf(departureMinute) : null; }
+
+    /**
+     * Get the arrival time of the flight
+     *
+     * @return [possibly null] The disembarking time of the last leg
+     */
+    ZonedDateTime getArrivalTime() { return size > 0 ? LegTable.timeOf(arrivalMinute) : null; }
+
+    /**
+     * Get the number of layovers
+     *
+     * @return The number of layovers
+     */
+    int getNumberOfLayovers() { return Math.max(size - 1, 0); }
+
+    /**
+     * Get the seating type
+     *
+     * @return The seating type
+     */
+    String getSeatingType() { return seatingType; }
+
+    /**
+     * Get the fewest remaining seats of the seating type on any leg
+     *
+     * @return The remaining seats, or Integer.MAX_VALUE if the flight has no legs
+     */
+    int getFewestRemainingSeats() { return fewestRemainingSeats; }
+
+    /**
+     * Get the fewest remaining seats on any leg, counting the seating type with the most seats remaining on each leg
+     *
+     * @return The remaining seats, or Integer.MAX_VALUE if the flight has no legs
+     */
+    int getFewestRemainingSeatsOfAnyType() { return fewestRemainingSeatsOfAnyType; }
+
+    /**
+     * Get the total price of the flight for its seating type
+     *
+     * @return The total price in cents, or NO_PRICE if a leg has no price
+     */
+    long getTotalCents() { return totalCents; }
+
+    /**
+     * Copies the legs into a new Flight in order from departure to arrival
+     *
+     * @param filterReason The validity of the flight as compared to a UIModel
+     * @return A new flight with the legs of this partial flight
+     */
+    Flight toFlight(String filterReason) {
+        Legs legs = new Legs();
+        for (PartialFlight current = this; current.size > 0; current = current.parent)
+            legs.add(current.newestTable.toLeg(current.newestRow));
+        // The chain runs from the newest leg to the oldest leg
+        if (isAddedToEnd) Collections.reverse(legs);
+        return new Flight(seatingType, legs, filterReason);
+    }
+}
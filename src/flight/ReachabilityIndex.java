@@ -0,0 +1,127 @@
+package flight;
+
+import leg.LegTable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Index of the legs that reach the other end of a search in one hop, grouped by the airport they connect at.
+ *
+ * If flights are built from their departure, the other end is the arrival airport, and the index holds the legs
+ * disembarking there by the airport and time they board. If flights are built from their arrival, the other end is
+ * the departure airport, and the index holds the legs boarding there by the airport and time they disembark.
+ *
+ * A flight with one leg left can only be completed if the index has a leg connecting at its open end within its
+ * layover window, so flights that can not be completed are discarded before the legs at their open end are fetched.
+ * The same legs are joined to the flights in bidirectional search mode. Airport ids are dense, so the legs are kept in
+ * an array indexed by airport id instead of a map.
+ *
+ * @author agent
+ * @version 1.0 2026-10-18
+ * @since 2026-10-18
+ *
+ */
+class ReachabilityIndex {
+    /** Legs by the id of the airport they connect at, in order of the time they connect */
+    private final List<List<Connection>> connectionsByAirport;
+
+    /**
+     * Constructor groups the legs of the tables by the airport they connect at
+     *
+     * @param tables Tables holding every leg at the other end of the search for the dates of the search
+     * @param isAddedToEnd True if legs are added to the end of flights and connect where they board,
+     *                     false if they are added to the beginning and connect where they disembark
+     */
+    ReachabilityIndex(List<LegTable> tables, boolean isAddedToEnd) {
+        int maxAirportId = LegTable.NO_AIRPORT;
+        for (LegTable table : tables)
+            for (int row = 0; row < table.size(); row++)
+                maxAirportId = Math.max(maxAirportId, connectingAirportId(table, row, isAddedToEnd));
+        connectionsByAirport = new ArrayList<>(Collections.nCopies(maxAirportId + 1, null));
+
+        for (LegTable table : tables) {
+            for (int row = 0; row < table.size(); row++) {
+                int airportId = connectingAirportId(table, row, isAddedToEnd);
+                if (airportId == LegTable.NO_AIRPORT) continue;
+                int minute = isAddedToEnd ? table.boardingMinute(row) : table.disembarkingMinute(row);
+                if (connectionsByAirport.get(airportId) == null) connectionsByAirport.set(airportId, new ArrayList<>());
+                connectionsByAirport.get(airportId).add(new Connection(table, row, minute));
+            }
+        }
+        for (List<Connection> connections : connectionsByAirport)
+            if (connections != null) connections.sort(Comparator.comparingInt(connection -> connection.minute));
+    }
+
+    /**
+     * Get the id of the airport a leg connects at
+     *
+     * @param table The table holding the leg
+     * @param row The row of the leg
+     * @param isAddedToEnd True if the leg connects where it boards, false if it connects where it disembarks
+     * @return The id of the airport, or NO_AIRPORT if the leg has no airport there
+     */
+    private static int connectingAirportId(LegTable table, int row, boolean isAddedToEnd) {
+        return isAddedToEnd ? table.boardingAirportId(row) : table.disembarkingAirportId(row);
+    }
+
+    /**
+     * Check if the other end can be reached in one hop from an airport within an inclusive time window
+     *
+     * @param airportId The id of the airport
+     * @param startMinute The start of the window as minutes since the epoch
+     * @param endMinute The end of the window as minutes since the epoch
+     * @return True if a leg connects at the airport within the window
+     */
+    boolean isReachable(int airportId, int startMinute, int endMinute) {
+        return !connectionsBetween(airportId, startMinute, endMinute).isEmpty();
+    }
+
+    /**
+     * Get the legs that connect at an airport within an inclusive time window
+     *
+     * @param airportId The id of the airport
+     * @param startMinute The start of the window as minutes since the epoch
+     * @param endMinute The end of the window as minutes since the epoch
+     * @return [possibly empty] The legs in order of the time they connect
+     */
+    List<Connection> connectionsBetween(int airportId, int startMinute, int endMinute) {
+        if (airportId < 0 || airportId >= connectionsByAirport.size()) return Collections.emptyList();
+        List<Connection> connections = connectionsByAirport.get(airportId);
+        if (connections == null) return Collections.emptyList();
+        return connections.subList(firstIndexAtOrAfter(connections, startMinute), firstIndexAtOrAfter(connections, endMinute + 1));
+    }
+
+    /**
+     * Binary search for the first leg that connects at or after a time
+     *
+     * @param connections Legs in order of the time they connect
+     * @param minute The time as minutes since the epoch
+     * @return The index of the first leg at or after the time, or the number of legs if there is none
+     */
+    private static int firstIndexAtOrAfter(List<Connection> connections, int minute) {
+        int low = 0;
+        int high = connections.size();
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (connections.get(middle).minute < minute) low = middle + 1;
+            else high = middle;
+        }
+        return low;
+    }
+
+    /** A leg stored in a row of a leg table, with the time it connects to a flight as minutes since the epoch */
+    static class Connection {
+        final LegTable table;
+        final int row;
+        final int minute;
+
+        private Connection(LegTable table, int row, int minute) {
+            this.table = table;
+            this.row = row;
+            this.minute = minute;
+        }
+    }
+}
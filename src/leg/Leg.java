@@ -2,13 +2,18 @@ package leg;
 
 import airport.Airport;
 import plane.Plane;
+import utils.Money;
 import java.math.BigDecimal;
 import java.time.Duration;
+import java.time.LocalDateTime;
 import java.time.ZonedDateTime;
 
 /**
  * This class initializes Leg as a class and creates its attributes and methods.
  *
+ * Prices are stored as long cents, or LegTable.NO_PRICE if the leg has no price. The BigDecimal price accessors
+ * convert to and from cents.
+ *
  * @author Kevin Martin, William Keenan
  * @version 1.1 2020-05-06
  * @since 2020-03-23
@@ -29,28 +34,63 @@ public class Leg {
     private int reservedFirstClassSeats;
     private Duration legDuration;
     private Plane plane; // the plane model
-    private BigDecimal coachPrice;
-    private BigDecimal firstClassPrice;
+    private long coachCents;
+    private long firstClassCents;
 
     /**
      * Default Constructor
      *
-     * The constructor for Leg Objects
+     * The constructor for Leg Objects. The airports and plane are null until they are set.
      *
      * @post member attributes are initialized to default values
      */
     public Leg() {
-        disembarkingAirport = new Airport();
-        boardingAirport = new Airport();
+        disembarkingAirport = null;
+        boardingAirport = null;
         disembarkingTime = null;
         boardingTime = null;
         flightNumber = Integer.MAX_VALUE;
         reservedCoachSeats = Integer.MAX_VALUE;
         reservedFirstClassSeats = Integer.MAX_VALUE;
         legDuration = Duration.ZERO;
-        plane = new Plane();
-        coachPrice = null;
-        firstClassPrice = null;
+        plane = null;
+        coachCents = LegTable.NO_PRICE;
+        firstClassCents = LegTable.NO_PRICE;
+    }
+
+    /**
+     * Constructor for a leg with every attribute already known
+     *
+     * Used to build legs from server XML and from a LegTable without allocating default values that are
+     * immediately replaced
+     *
+     * @param disembarkingAirport The disembarking airport object
+     * @param boardingAirport The boarding airport object
+     * @param disembarkingTime The disembarking time
+     * @param boardingTime The boarding time
+     * @param flightNumber The flight number
+     * @param reservedCoachSeats The number of reserved coach seats
+     * @param reservedFirstClassSeats The number of reserved first class seats
+     * @param legDuration The leg duration
+     * @param plane The plane object
+     * @param coachCents The coach price in cents, or LegTable.NO_PRICE
+     * @param firstClassCents The first class price in cents, or LegTable.NO_PRICE
+     * @post member attributes are initialized to the given values
+     */
+    public Leg(Airport disembarkingAirport, Airport boardingAirport, ZonedDateTime disembarkingTime,
+        ZonedDateTime boardingTime, int flightNumber, int reservedCoachSeats, int reservedFirstClassSeats,
+        Duration legDuration, Plane plane, long coachCents, long firstClassCents) {
+        this.disembarkingAirport = disembarkingAirport;
+        this.boardingAirport = boardingAirport;
+        this.disembarkingTime = disembarkingTime;
+        this.boardingTime = boardingTime;
+        this.flightNumber = flightNumber;
+        this.reservedCoachSeats = reservedCoachSeats;
+        this.reservedFirstClassSeats = reservedFirstClassSeats;
+        this.legDuration = legDuration;
+        this.plane = plane;
+        this.coachCents = coachCents;
+        this.firstClassCents = firstClassCents;
     }
 
     /**
@@ -137,19 +177,47 @@ public class Leg {
     /**
      * Method for getting coach price
      *
-     * @return Coach price
+     * @return [possibly null] Coach price
      */
     public BigDecimal getCoachPrice() {
-        return coachPrice;
+        return toPrice(coachCents);
     }
 
     /**
      * Method for getting first class price
      *
-     * @return First class price
+     * @return [possibly null] First class price
      */
     public BigDecimal getFirstClassPrice() {
-        return firstClassPrice;
+        return toPrice(firstClassCents);
+    }
+
+    /**
+     * Method for getting coach price in cents
+     *
+     * @return Coach price in cents, or LegTable.NO_PRICE if the leg has no coach price
+     */
+    public long getCoachCents() {
+        return coachCents;
+    }
+
+    /**
+     * Method for getting first class price in cents
+     *
+     * @return First class price in cents, or LegTable.NO_PRICE if the leg has no first class price
+     */
+    public long getFirstClassCents() {
+        return firstClassCents;
+    }
+
+    /**
+     * Method for getting the price of a seating type in cents
+     *
+     * @param seatType Type of seating
+     * @return The first class price in cents for First Class, otherwise the coach price in cents
+     */
+    public long getPriceCents(String seatType) {
+        return seatType.equals("First Class") ? firstClassCents : coachCents;
     }
 
     /**
@@ -170,6 +238,24 @@ public class Leg {
         return disembarkingAirport.convertGMTtoLocalTime(disembarkingTime);
     }
 
+    /**
+     * Method to return the local boarding date and time, without creating any time zone objects
+     *
+     * @return Local boarding date and time
+     */
+    public LocalDateTime getLocalBoardingDateTime() {
+        return boardingAirport.convertGMTtoLocalDateTime(boardingTime.toEpochSecond());
+    }
+
+    /**
+     * Method to return the local disembarking date and time, without creating any time zone objects
+     *
+     * @return Local disembarking date and time
+     */
+    public LocalDateTime getLocalDisembarkingDateTime() {
+        return disembarkingAirport.convertGMTtoLocalDateTime(disembarkingTime.toEpochSecond());
+    }
+
     /**
      * Method to return the number of remaining seats on a leg
      *
@@ -177,8 +263,28 @@ public class Leg {
      * @return Remaining seats on leg
      */
     public int getRemainingSeats(String seatType) {
-        if (seatType.equals("First Class")) return plane.firstClassSeats() - reservedFirstClassSeats;
-        else return plane.coachSeats() - reservedCoachSeats;
+        if (seatType.equals("First Class")) return firstClassSeatsOf(plane) - reservedFirstClassSeats;
+        else return coachSeatsOf(plane) - reservedCoachSeats;
+    }
+
+    /**
+     * Get the coach seats of a plane
+     *
+     * @param plane [possibly null] The plane
+     * @return The coach seats, or Integer.MAX_VALUE if the plane is not known
+     */
+    static int coachSeatsOf(Plane plane) {
+        return plane == null ? Integer.MAX_VALUE : plane.coachSeats();
+    }
+
+    /**
+     * Get the first class seats of a plane
+     *
+     * @param plane [possibly null] The plane
+     * @return The first class seats, or Integer.MAX_VALUE if the plane is not known
+     */
+    static int firstClassSeatsOf(Plane plane) {
+        return plane == null ? Integer.MAX_VALUE : plane.firstClassSeats();
     }
 
     /**
@@ -268,7 +374,7 @@ public class Leg {
      * @param newCoachPrice The new coach price
      */
     public void setCoachPrice(BigDecimal newCoachPrice) {
-        coachPrice = newCoachPrice;
+        coachCents = toCents(newCoachPrice);
     }
 
     /**
@@ -277,7 +383,45 @@ public class Leg {
      * @param newFirstClassPrice The new first class price
      */
     public void setFirstClassPrice(BigDecimal newFirstClassPrice) {
-        firstClassPrice = newFirstClassPrice;
+        firstClassCents = toCents(newFirstClassPrice);
+    }
+
+    /**
+     * Method to set the coach price in cents
+     *
+     * @param newCoachCents The new coach price in cents, or LegTable.NO_PRICE
+     */
+    public void setCoachCents(long newCoachCents) {
+        coachCents = newCoachCents;
+    }
+
+    /**
+     * Method to set the first class price in cents
+     *
+     * @param newFirstClassCents The new first class price in cents, or LegTable.NO_PRICE
+     */
+    public void setFirstClassCents(long newFirstClassCents) {
+        firstClassCents = newFirstClassCents;
+    }
+
+    /**
+     * Converts a price to cents
+     *
+     * @param price [possibly null] The price, rounded half up to the cent
+     * @return The price in cents, or LegTable.NO_PRICE if the price is null
+     */
+    private static long toCents(BigDecimal price) {
+        return price == null ? LegTable.NO_PRICE : Money.toCents(price);
+    }
+
+    /**
+     * Converts cents to a price
+     *
+     * @param cents The price in cents, or LegTable.NO_PRICE
+     * @return [possibly null] The price with two decimal places, or null if there is no price
+     */
+    private static BigDecimal toPrice(long cents) {
+        return cents == LegTable.NO_PRICE ? null : BigDecimal.valueOf(cents, 2);
     }
 
     /**
@@ -0,0 +1,326 @@
+package leg;
+
+import airport.Airport;
+import plane.Plane;
+import utils.IdRegistry;
+import utils.Money;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * An immutable group of legs stored as columns of primitives, sorted by either boarding or disembarking time.
+ *
+ * Each leg is a row of the table. Times are stored as minutes since the epoch, as given by the server, prices are
+ * stored as cents and airports are stored as int ids, so that a flight search can compare legs without allocating
+ * any objects. The airports and planes of each row are kept as references to the shared airport and plane objects,
+ * so a Leg object can be built for any row when one is needed.
+ *
+ * @author agent
+ * @version 1.0 2026-10-18
+ * @since 2026-10-18
+ *
+ */
+public final class LegTable {
+    /** Id of a missing airport */
+    public static final int NO_AIRPORT = IdRegistry.NO_ID;
+    /** Price in cents of a leg which has no price */
+    public static final long NO_PRICE = Money.NO_PRICE;
+    /** Minutes in a day */
+    private static final int MINUTES_PER_DAY = 24 * 60;
+    /** All leg times are in GMT */
+    private static final ZoneId gmt = ZoneId.ofOffset("GMT", ZoneOffset.ofHours(0));
+
+    private final int[] boardingMinutes;
+    private final int[] disembarkingMinutes;
+    private final int[] durationMinutes;
+    private final int[] flightNumbers;
+    private final int[] reservedCoachSeats;
+    private final int[] reservedFirstClassSeats;
+    private final int[] boardingAirportIds;
+    private final int[] disembarkingAirportIds;
+    private final long[] coachCents;
+    private final long[] firstClassCents;
+    private final Airport[] boardingAirports;
+    private final Airport[] disembarkingAirports;
+    private final Plane[] planes;
+    /** The column the rows are sorted by, either the boarding or the disembarking minutes */
+    private final int[] sortMinutes;
+
+    /**
+     * Constructor copies the legs into columns in ascending order of their boarding or disembarking time
+     *
+     * @param legs [possibly empty] legs to be stored
+     * @param isSortedByBoarding True to sort the rows by boarding time, false to sort them by disembarking time
+     */
+    private LegTable(Legs legs, boolean isSortedByBoarding) {
+        Leg[] sortedLegs = legs.toArray(new Leg[0]);
+        Arrays.sort(sortedLegs, Comparator.comparing(isSortedByBoarding ? Leg::getBoardingTime : Leg::getDisembarkingTime));
+
+        int size = sortedLegs.length;
+        boardingMinutes = new int[size];
+        disembarkingMinutes = new int[size];
+        durationMinutes = new int[size];
+        flightNumbers = new int[size];
+        reservedCoachSeats = new int[size];
+        reservedFirstClassSeats = new int[size];
+        boardingAirportIds = new int[size];
+        disembarkingAirportIds = new int[size];
+        coachCents = new long[size];
+        firstClassCents = new long[size];
+        boardingAirports = new Airport[size];
+        disembarkingAirports = new Airport[size];
+        planes = new Plane[size];
+
+        for (int row = 0; row < size; row++) {
+            Leg thisLeg = sortedLegs[row];
+            boardingMinutes[row] = floorMinute(thisLeg.getBoardingTime());
+            disembarkingMinutes[row] = floorMinute(thisLeg.getDisembarkingTime());
+            durationMinutes[row] = (int) thisLeg.getLegDuration().toMinutes();
+            flightNumbers[row] = thisLeg.getFlightNumber();
+            reservedCoachSeats[row] = thisLeg.getReservedCoachSeats();
+            reservedFirstClassSeats[row] = thisLeg.getReservedFirstClassSeats();
+            boardingAirportIds[row] = airportId(thisLeg.getBoardingAirport());
+            disembarkingAirportIds[row] = airportId(thisLeg.getDisembarkingAirport());
+            coachCents[row] = thisLeg.getCoachCents();
+            firstClassCents[row] = thisLeg.getFirstClassCents();
+            boardingAirports[row] = thisLeg.getBoardingAirport();
+            disembarkingAirports[row] = thisLeg.getDisembarkingAirport();
+            planes[row] = thisLeg.getPlane();
+        }
+        sortMinutes = isSortedByBoarding ? boardingMinutes : disembarkingMinutes;
+    }
+
+    /**
+     * Creates a table of legs sorted by boarding time
+     *
+     * @param legs [possibly empty] legs to be stored
+     * @return A table of the legs in ascending order of boarding time
+     */
+    public static LegTable byBoardingTime(Legs legs) {
+        return new LegTable(legs, true);
+    }
+
+    /**
+     * Creates a table of legs sorted by disembarking time
+     *
+     * @param legs [possibly empty] legs to be stored
+     * @return A table of the legs in ascending order of disembarking time
+     */
+    public static LegTable byDisembarkingTime(Legs legs) {
+        return new LegTable(legs, false);
+    }
+
+    /**
+     * Get the id of an airport, which is the dense id registered for its code
+     *
+     * @param airport [possibly null] The airport
+     * @return The id of the airport, or NO_AIRPORT if the airport is null or has no code
+     */
+    public static int airportId(Airport airport) {
+        if (airport == null) return NO_AIRPORT;
+        return airport.id();
+    }
+
+    /**
+     * Get the number of minutes since the epoch of a time, rounded down to the minute
+     *
+     * @param time The time
+     * @return The minutes since the epoch
+     */
+    public static int floorMinute(ZonedDateTime time) {
+        return (int) Math.floorDiv(time.toEpochSecond(), 60);
+    }
+
+    /**
+     * Get the GMT date of a time given as minutes since the epoch
+     *
+     * @param minute The minutes since the epoch
+     * @return The GMT date
+     */
+    public static LocalDate dateOf(int minute) {
+        return LocalDate.ofEpochDay(Math.floorDiv(minute, MINUTES_PER_DAY));
+    }
+
+    /**
+     * Get the GMT time of a time given as minutes since the epoch
+     *
+     * @param minute The minutes since the epoch
+     * @return The GMT time
+     */
+    public static ZonedDateTime timeOf(int minute) {
+        return ZonedDateTime.ofInstant(Instant.ofEpochSecond(minute * 60L), gmt);
+    }
+
+    /**
+     * Get the number of legs in the table
+     *
+     * @return The number of rows
+     */
+    public int size() { return flightNumbers.length; }
+
+    /**
+     * Binary search for the first row which does not have a sort time before a time
+     *
+     * @param minute The time as minutes since the epoch
+     * @return The first row at or after the time, or the number of rows if there is none
+     */
+    public int firstRowAtOrAfter(int minute) {
+        int low = 0;
+        int high = sortMinutes.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (sortMinutes[middle] < minute) low = middle + 1;
+            else high = middle;
+        }
+        return low;
+    }
+
+    /**
+     * Binary search for the first row which has a sort time after a time
+     *
+     * @param minute The time as minutes since the epoch
+     * @return The first row after the time, or the number of rows if there is none
+     */
+    public int firstRowAfter(int minute) {
+        return minute == Integer.MAX_VALUE ? sortMinutes.length : firstRowAtOrAfter(minute + 1);
+    }
+
+    /**
+     * Get the boarding time of a leg
+     *
+     * @param row The row of the leg
+     * @return The boarding time as minutes since the epoch
+     */
+    public int boardingMinute(int row) { return boardingMinutes[row]; }
+
+    /**
+     * Get the disembarking time of a leg
+     *
+     * @param row The row of the leg
+     * @return The disembarking time as minutes since the epoch
+     */
+    public int disembarkingMinute(int row) { return disembarkingMinutes[row]; }
+
+    /**
+     * Get the flight number of a leg
+     *
+     * @param row The row of the leg
+     * @return The flight number
+     */
+    public int flightNumber(int row) { return flightNumbers[row]; }
+
+    /**
+     * Get the boarding airport id of a leg
+     *
+     * @param row The row of the leg
+     * @return The id of the boarding airport
+     */
+    public int boardingAirportId(int row) { return boardingAirportIds[row]; }
+
+    /**
+     * Get the disembarking airport id of a leg
+     *
+     * @param row The row of the leg
+     * @return The id of the disembarking airport
+     */
+    public int disembarkingAirportId(int row) { return disembarkingAirportIds[row]; }
+
+    /**
+     * Get the boarding airport of a leg
+     *
+     * @param row The row of the leg
+     * @return The boarding airport
+     */
+    public Airport boardingAirport(int row) { return boardingAirports[row]; }
+
+    /**
+     * Get the disembarking airport of a leg
+     *
+     * @param row The row of the leg
+     * @return The disembarking airport
+     */
+    public Airport disembarkingAirport(int row) { return disembarkingAirports[row]; }
+
+    /**
+     * Get the coach price of a leg
+     *
+     * @param row The row of the leg
+     * @return The coach price in cents, or NO_PRICE if the leg has no price
+     */
+    public long coachCents(int row) { return coachCents[row]; }
+
+    /**
+     * Get the first class price of a leg
+     *
+     * @param row The row of the leg
+     * @return The first class price in cents, or NO_PRICE if the leg has no price
+     */
+    public long firstClassCents(int row) { return firstClassCents[row]; }
+
+    /**
+     * Get the price of a leg for a seating type
+     *
+     * @param row The row of the leg
+     * @param seatType Type of seating
+     * @return The price in cents, or NO_PRICE if the leg has no price
+     */
+    public long cents(int row, String seatType) {
+        if (seatType.equals("First Class")) return firstClassCents[row];
+        else return coachCents[row];
+    }
+
+    /**
+     * Get the number of remaining seats on a leg
+     *
+     * @param row The row of the leg
+     * @param seatType Type of seating
+     * @return Remaining seats on leg
+     */
+    public int remainingSeats(int row, String seatType) {
+        if (seatType.equals("First Class")) return Leg.firstClassSeatsOf(planes[row]) - reservedFirstClassSeats[row];
+        else return Leg.coachSeatsOf(planes[row]) - reservedCoachSeats[row];
+    }
+
+    /**
+     * Get the largest number of remaining seats of any seating type on a leg
+     *
+     * @param row The row of the leg
+     * @return Remaining seats of the seating type with the most seats remaining
+     */
+    public int mostRemainingSeats(int row) {
+        return Math.max(Leg.coachSeatsOf(planes[row]) - reservedCoachSeats[row],
+                Leg.firstClassSeatsOf(planes[row]) - reservedFirstClassSeats[row]);
+    }
+
+    /**
+     * Builds a new Leg with the values of a row
+     *
+     * @param row The row of the leg
+     * @return A new leg
+     */
+    public Leg toLeg(int row) {
+        return new Leg(disembarkingAirports[row], boardingAirports[row], timeOf(disembarkingMinutes[row]),
+                timeOf(boardingMinutes[row]), flightNumbers[row], reservedCoachSeats[row],
+                reservedFirstClassSeats[row], Duration.ofMinutes(durationMinutes[row]), planes[row],
+                coachCents[row], firstClassCents[row]);
+    }
+
+    /**
+     * Builds a new Leg for every row
+     *
+     * @return [possibly empty] new legs in ascending order of the sort time
+     */
+    public Legs toLegs() {
+        Legs allLegs = new Legs();
+        for (int row = 0; row < size(); row++)
+            allLegs.add(toLeg(row));
+        return allLegs;
+    }
+}
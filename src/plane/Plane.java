@@ -1,5 +1,7 @@
 package plane;
 
+import utils.IdRegistry;
+
 /**
  * This class holds values pertaining to a single Plane.
  *
@@ -7,18 +9,27 @@ package plane;
  * XML received from the server to Java primitives. Attributes are accessed via getter and 
  * setter methods.
  *
+ * Each plane model is registered for a dense int id, so planes with the same model have the same id and can be
+ * compared and hashed by id.
+ *
  * @author blake
  * @version 1.3 2019-01-21
  * @since 2016-02-24
  *
  */
 public class Plane {
+    /** Registry of the ids of plane models */
+    private static final IdRegistry modelIds = new IdRegistry();
+
         /** Plane Manufacturer */
     private String mManufacturer;
 
     /** Plane Model */
     private String mModel;
 
+    /** Id of the plane model, or IdRegistry.NO_ID if the model has not been set */
+    private int mId;
+
     /** # of first class seats*/
     private int mFirstClassSeats;
 
@@ -37,6 +48,7 @@ public class Plane {
     public Plane () {
         mManufacturer = "";
         mModel = "";
+        mId = IdRegistry.NO_ID;
         mFirstClassSeats = Integer.MAX_VALUE;
         mCoachSeats = Integer.MAX_VALUE;
     }
@@ -70,9 +82,10 @@ public class Plane {
      * @throws IllegalArgumentException if model is invalid
      */
     public void model (String model) {
-        if (isValidModel(model))
+        if (isValidModel(model)) {
             mModel = model;
-        else
+            mId = modelIds.idOf(model);
+        } else
             throw new IllegalArgumentException (model);
     }
 
@@ -83,6 +96,13 @@ public class Plane {
      */
     public String model () { return mModel; }
 
+    /**
+     * Get the id of the plane model.
+     *
+     * @return The dense id shared by every plane with the same model, or IdRegistry.NO_ID if the model is not set
+     */
+    public int id () { return mId; }
+
     /**
      * Set the number of coach seats for the plane.
      *
@@ -177,12 +197,25 @@ public class Plane {
         // can't be equal if obj is not an instance of Plane
         if (!(obj instanceof Plane)) return false;
 
-        // if all fields are equal, the Planes are the same
+        // planes with different models have different ids, which is the cheapest field to compare
         Plane rhs = (Plane) obj;
+        if (rhs.mId != mId) return false;
+
+        // if all fields are equal, the Planes are the same
         return (rhs.mManufacturer.equalsIgnoreCase(mManufacturer)) &&
                 (rhs.mModel.equalsIgnoreCase(mModel));
     }
 
+    /**
+     * Get the hash code of the plane, which is the id of its model
+     *
+     * @return The same hash code for planes which are equal
+     */
+    @Override
+    public int hashCode () {
+        return mId;
+    }
+
 }
 
 
@@ -3,9 +3,11 @@ package ui;
 import driver.TripBuilder;
 import driver.Trip;
 import flight.Flight;
+import flight.FlightManager;
 import flight.Flights;
 import leg.Leg;
 import leg.Legs;
+import utils.Money;
 import utils.NotificationManager;
 import utils.Saps;
 
@@ -15,13 +17,13 @@ import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.beans.PropertyChangeEvent;
 import java.beans.PropertyChangeListener;
-import java.text.NumberFormat;
+import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
-import java.util.Locale;
+import java.util.concurrent.ExecutionException;
 
 /**
  * This class serves as a viewer for the UIModel. It is controlled by the UIController. The form, components,
@@ -29,6 +31,9 @@ import java.util.Locale;
  * to the controller, and retrieves display values from the controller, and activates the TripBuilder controller
  * when the user requests search functionality or trip related functionality.
  *
+ * Searches run on a SwingWorker so the window stays responsive. Flights are appended to the flight table in batches
+ * as they are found, and the table is sorted once the search is complete or cancelled.
+ *
  * @author Chris Collins
  * @version 1.0 2020-03-26
  * @since 2020-03-06
@@ -58,12 +63,15 @@ public class ReservationApp {
     private JComboBox sortTypeComboBox;
     private JComboBox sortDirectionComboBox;
     private JButton newSearchButton;
+    private JButton cancelSearchButton;
     private JFrame frameHandle;
 
     /** List of flights currently displayed in the flightDisplayTable */
     private Flights displayList = new Flights();
     /** List of legs currently displayed in the legDisplayTable */
     private Legs legsInCart = new Legs();
+    /** The search currently running in the background, or null */
+    private SearchWorker searchWorker;
 
     /** List of UI components which should be active during flight search to enable user input */
     private List<JComponent> midSearchEnabledList = new ArrayList<>();
@@ -104,6 +112,7 @@ public class ReservationApp {
         buildMidSearchEnabledList();
         buildPreSearchEnabledList();
         isPreSearchState(true);
+        cancelSearchButton.setEnabled(false);
 
         // User may only interact with the trip combobox at the very beginning
         tripTypeComboBox.setEnabled(true);
@@ -164,19 +173,39 @@ public class ReservationApp {
             @Override
             public void actionPerformed(ActionEvent e) {
                 System.out.println("Search Button User Interaction");
-                displayList = TripBuilder.getInstance().searchForFlights();
-                if (displayList.size() != 0) {
+                UIModel userInput = controller.getAcceptedInput();
+                if (searchWorker == null && TripBuilder.getInstance().isSearchInputValid(userInput)) {
+                    displayList = new Flights();
                     buildFlightTable();
-                    // After the user has initiated search, disable all the search fields
-                    isPreSearchState(true);
+                    // Disable the search fields until the search is done
+                    for (JComponent element : midSearchEnabledList)
+                        element.setEnabled(false);
+                    cancelSearchButton.setEnabled(true);
+                    searchWorker = new SearchWorker(userInput);
+                    searchWorker.execute();
                 }
             }
         });
 
+        // When the cancel button is pressed, stop the search and keep the flights found so far
+        cancelSearchButton.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                System.out.println("Cancel Search User Interaction");
+                if (searchWorker != null)
+                    searchWorker.cancelSearch();
+            }
+        });
+
         // When the reset button is pressed, reinitialize the GUI
         startOverButton.addActionListener(new ActionListener() {
             @Override
             public void actionPerformed(ActionEvent e) {
+                // Stop any running search, its results are discarded
+                if (searchWorker != null) {
+                    searchWorker.cancelSearch();
+                    searchWorker = null;
+                }
                 Trip.getInstance().resetTrip();
                 legsInCart = new Legs();
                 buildLegTable();
@@ -435,21 +464,21 @@ public class ReservationApp {
         DateTimeFormatter dateStyle = DateTimeFormatter.ofPattern("MM/dd/yyyy");
         DateTimeFormatter timeStyle = DateTimeFormatter.ofPattern("hh:mm a");
         DateTimeFormatter flightTimeStyle = DateTimeFormatter.ofPattern("HH:mm");
-        NumberFormat priceStyle = NumberFormat.getCurrencyInstance(Locale.US);
 
         // Add a new row to the table for each leg on the list
         for (Leg leg : legsInCart) {
             // Generate correctly formatted strings from Leg attributes
-            String coachPrice = priceStyle.format(leg.getCoachPrice());
-            String firstClassPrice = priceStyle.format(leg.getFirstClassPrice());
+            String coachPrice = Money.format(leg.getCoachCents());
+            String firstClassPrice = Money.format(leg.getFirstClassCents());
             String departureAirport = leg.getBoardingAirport().code();
-            String departureDate = dateStyle.format(leg.getLocalBoardingTime());
-            String departureTime = timeStyle.format(leg.getLocalBoardingTime());
+            LocalDateTime localBoardingTime = leg.getLocalBoardingDateTime();
+            String departureDate = dateStyle.format(localBoardingTime);
+            String departureTime = timeStyle.format(localBoardingTime);
             String arrivalAirport = leg.getDisembarkingAirport().code();
             String arrivalDate = dateStyle.format(leg.getDisembarkingTime());
-            String arrivalTime = timeStyle.format(leg.getLocalDisembarkingTime());
+            String arrivalTime = timeStyle.format(leg.getLocalDisembarkingDateTime());
             String flightNumber = Integer.toString(leg.getFlightNumber());
-            String plane = leg.getPlane().model();
+            String plane = leg.getPlane() == null ? "" : leg.getPlane().model();
             String coachSeatsReserved = Integer.toString(leg.getRemainingSeats(Saps.SEATING_TYPES.get(0)));
             String firstClassSeatsReserved = Integer.toString(leg.getRemainingSeats(Saps.SEATING_TYPES.get(1)));
             String flightTime = flightTimeStyle.format(LocalTime.MIN.plus(leg.getLegDuration()));
@@ -474,12 +503,6 @@ public class ReservationApp {
         DefaultTableModel table = (DefaultTableModel) flightDisplayTable.getModel();
         table.setRowCount(0);
 
-        // Set the default formats for displaying dates, times, and prices
-        DateTimeFormatter dateStyle = DateTimeFormatter.ofPattern("MM/dd/yyyy");
-        DateTimeFormatter timeStyle = DateTimeFormatter.ofPattern("hh:mm a");
-        DateTimeFormatter flightTimeStyle = DateTimeFormatter.ofPattern("HH:mm");
-        NumberFormat priceStyle = NumberFormat.getCurrencyInstance(Locale.US);
-
         if (displayList.size() !=0)
             switch (sortType) {
                 case "Duration":
@@ -495,16 +518,36 @@ public class ReservationApp {
                     displayList.sortByPrice(isAscending);
             }
 
+        addFlightRows(displayList);
+        System.out.println("Flights have been displayed");
+    }
+
+    /**
+     * Adds a row to the end of the flight table for each flight on a list, without sorting them.
+     *
+     * @param flights The flights to display, which must also be at the end of the displayList
+     * @post The flights are displayed after the rows already in the table
+     */
+    private void addFlightRows(List<Flight> flights){
+        DefaultTableModel table = (DefaultTableModel) flightDisplayTable.getModel();
+
+        // Set the default formats for displaying dates, times, and prices
+        DateTimeFormatter dateStyle = DateTimeFormatter.ofPattern("MM/dd/yyyy");
+        DateTimeFormatter timeStyle = DateTimeFormatter.ofPattern("hh:mm a");
+        DateTimeFormatter flightTimeStyle = DateTimeFormatter.ofPattern("HH:mm");
+
         // Add a new row to the table for each leg on the list
-        for (Flight flight : displayList) {
+        for (Flight flight : flights) {
             // Generate correctly formatted strings from Leg attributes
-            String price = priceStyle.format(flight.getTotalPrice());
+            String price = Money.format(flight.getTotalCents());
             String departureAirport = flight.getDepartureAirport().code();
-            String departureDate = dateStyle.format(flight.getLocalDepartureTime());
-            String departureTime = timeStyle.format(flight.getLocalDepartureTime());
+            LocalDateTime localDepartureTime = flight.getLocalDepartureDateTime();
+            String departureDate = dateStyle.format(localDepartureTime);
+            String departureTime = timeStyle.format(localDepartureTime);
             String arrivalAirport = flight.getArrivalAirport().code();
-            String arrivalDate = dateStyle.format(flight.getLocalArrivalTime());
-            String arrivalTime = timeStyle.format(flight.getLocalArrivalTime());
+            LocalDateTime localArrivalTime = flight.getLocalArrivalDateTime();
+            String arrivalDate = dateStyle.format(localArrivalTime);
+            String arrivalTime = timeStyle.format(localArrivalTime);
             String duration = flightTimeStyle.format(LocalTime.MIN.plus(flight.getTotalTravelTime()));
             String layovers = Integer.toString(flight.getNumberOfLayovers());
             String seating = flight.getSeatingType();
@@ -513,6 +556,77 @@ public class ReservationApp {
             table.addRow(new Object[] {price, departureAirport, departureDate, departureTime,arrivalAirport,
                     arrivalDate,arrivalTime,duration,layovers,seating});
         }
-        System.out.println("Flights have been displayed");
     }
-}
+
+    /**
+     * Runs a flight search off the Event Dispatch Thread. Flights are published to the table as they are found, and
+     * the table is rebuilt from the complete list of valid flights when the search is done.
+     */
+    private class SearchWorker extends SwingWorker<FlightManager, Flight> {
+        /** The flight filter of the search */
+        private final UIModel userInput;
+        /** The running search, null until it has been started */
+        private volatile FlightManager search;
+        /** True once the user has asked to stop the search */
+        private volatile boolean isCancelRequested = false;
+
+        /**
+         * Constructor stores the flight filter of the search
+         *
+         * @param userInput The UIModel to search with, which has a departure airport and arrival airport
+         */
+        private SearchWorker(UIModel userInput) {
+            this.userInput = userInput;
+        }
+
+        /**
+         * Stops the search at its next expansion. The flights found so far are still displayed.
+         */
+        private void cancelSearch() {
+            isCancelRequested = true;
+            FlightManager runningSearch = search;
+            if (runningSearch != null) runningSearch.cancel();
+        }
+
+        @Override
+        protected FlightManager doInBackground() {
+            search = TripBuilder.getInstance().newSearch(userInput);
+            // The user may have cancelled while the first legs were fetched
+            if (isCancelRequested) search.cancel();
+            search.flightListener(flight -> publish(flight));
+            search.completeQueue();
+            return search;
+        }
+
+        @Override
+        protected void process(List<Flight> flights) {
+            // Ignore a search that was replaced by starting over
+            if (searchWorker != this) return;
+            displayList.addAll(flights);
+            addFlightRows(flights);
+        }
+
+        @Override
+        protected void done() {
+            if (searchWorker != this) return;
+            searchWorker = null;
+            cancelSearchButton.setEnabled(false);
+
+            FlightManager completedSearch;
+            try {
+                completedSearch = get();
+            } catch (InterruptedException | ExecutionException exc) {
+                System.out.println("Search failed: " + exc);
+                NotificationManager.getInstance().popupError("Error searching for flights!");
+                isPreSearchState(false);
+                return;
+            }
+
+            displayList = completedSearch.validFlights();
+            buildFlightTable();
+            TripBuilder.getInstance().notifySearchResults(completedSearch);
+            // After the user has found flights, disable all the search fields
+            isPreSearchState(displayList.size() != 0);
+        }
+    }
+}
\ No newline at end of file
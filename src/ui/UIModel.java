@@ -75,6 +75,32 @@ public class UIModel implements Cloneable{
             return null;
     }
 
+    /**
+     * Get the beginning of the time window for the arrival or departure of the flight as minutes since the epoch,
+     * without creating any time zone objects
+     *
+     * @return The beginning of the time window in GMT, rounded up to the minute
+     * @pre The departure airport is not empty
+     */
+    public int startFlightMinute() {
+        LocalDateTime start = LocalDateTime.of(flightLocalDate, startFlightLocalTime);
+        long second = departureAirport.convertLocalDateTimetoGMTSecond(start);
+        boolean isPartialMinute = Math.floorMod(second, 60) != 0 || start.getNano() > 0;
+        return (int) Math.floorDiv(second, 60) + (isPartialMinute ? 1 : 0);
+    }
+
+    /**
+     * Get the end of the time window for the arrival or departure of the flight as minutes since the epoch,
+     * without creating any time zone objects
+     *
+     * @return The end of the time window in GMT, rounded down to the minute
+     * @pre The arrival airport is not empty
+     */
+    public int endFlightMinute() {
+        long second = arrivalAirport.convertLocalDateTimetoGMTSecond(LocalDateTime.of(flightLocalDate, endFlightLocalTime));
+        return (int) Math.floorDiv(second, 60);
+    }
+
     /**
      * Get the beginning of the time window for the arrival or departure of the flight
      *
@@ -0,0 +1,41 @@
+package utils;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Hands out dense int ids for keys such as airport codes or plane models.
+ *
+ * The first key registered gets id 0, the next new key gets id 1, and so on, so the ids can be used as indexes into
+ * arrays. Keys are case insensitive, and a key keeps its id for the life of the JVM. Objects store the id of their key
+ * when the key is set, so comparing or hashing two objects only compares ints.
+ *
+ * @author agent
+ * @version 1.0 2026-10-18
+ * @since 2026-10-18
+ *
+ */
+public class IdRegistry {
+    /** Id of an object without a key */
+    public static final int NO_ID = -1;
+
+    /** The id of each upper case key */
+    private final Map<String, Integer> ids = new HashMap<>();
+
+    /**
+     * Get the id of a key, registering the key if it is new
+     *
+     * @param key The key, which is case insensitive
+     * @return The id of the key
+     */
+    public synchronized int idOf(String key) {
+        String upperCaseKey = key.toUpperCase(Locale.US);
+        Integer id = ids.get(upperCaseKey);
+        if (id == null) {
+            id = ids.size();
+            ids.put(upperCaseKey, id);
+        }
+        return id;
+    }
+}
@@ -0,0 +1,144 @@
+package utils;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * An immutable amount of US dollars stored as a whole number of cents.
+ *
+ * Prices are kept as long cents wherever they are added or compared, so totals and sorting never allocate. Money is
+ * only created to display a price or to hand it to code that still works in BigDecimal. It formats itself in the
+ * same US currency format the server uses, such as $1,234.56.
+ *
+ * @author agent
+ * @version 1.0 2026-10-18
+ * @since 2026-10-18
+ *
+ */
+public final class Money implements Comparable<Money> {
+    /** No money */
+    public static final Money ZERO = new Money(0);
+    /** Amount in cents of a price which is not known */
+    public static final long NO_PRICE = Long.MIN_VALUE;
+
+    /** The amount in cents */
+    private final long cents;
+
+    private Money(long cents) {
+        this.cents = cents;
+    }
+
+    /**
+     * Get an amount of cents as money
+     *
+     * @param cents The amount in cents
+     * @return The money
+     */
+    public static Money ofCents(long cents) {
+        return cents == 0 ? ZERO : new Money(cents);
+    }
+
+    /**
+     * Get an amount of dollars as money
+     *
+     * @param dollars The amount in dollars, rounded half up to the cent
+     * @return The money
+     * @throws ArithmeticException If the amount does not fit in a long number of cents
+     */
+    public static Money of(BigDecimal dollars) {
+        return ofCents(toCents(dollars));
+    }
+
+    /**
+     * Formats an amount of cents in US currency format
+     *
+     * @param cents The amount in cents, or NO_PRICE
+     * @return The amount such as $1,234.56, or an empty string if the amount is NO_PRICE
+     */
+    public static String format(long cents) {
+        return cents == NO_PRICE ? "" : ofCents(cents).toString();
+    }
+
+    /**
+     * Converts an amount of dollars to cents
+     *
+     * @param dollars The amount in dollars, rounded half up to the cent
+     * @return The amount in cents
+     * @throws ArithmeticException If the amount does not fit in a long number of cents
+     */
+    public static long toCents(BigDecimal dollars) {
+        return dollars.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    /**
+     * Get the amount in cents
+     *
+     * @return The amount in cents
+     */
+    public long cents() {
+        return cents;
+    }
+
+    /**
+     * Get the amount in dollars
+     *
+     * @return The amount in dollars, with two decimal places
+     */
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(cents, 2);
+    }
+
+    /**
+     * Adds money to this money
+     *
+     * @param other The money to add
+     * @return The sum
+     * @throws ArithmeticException If the sum does not fit in a long number of cents
+     */
+    public Money plus(Money other) {
+        return ofCents(Math.addExact(cents, other.cents));
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        return Long.compare(cents, other.cents);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (obj == this) return true;
+        if (!(obj instanceof Money)) return false;
+        return ((Money) obj).cents == cents;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(cents);
+    }
+
+    /**
+     * Formats the money in US currency format
+     *
+     * @return The amount such as $1,234.56, or -$1,234.56 if it is negative
+     */
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder(16);
+        // Count down from a negative amount, which can hold every long including Long.MIN_VALUE
+        long negativeCents = cents < 0 ? cents : -cents;
+        long dollars = -(negativeCents / 100);
+        long remainder = -(negativeCents % 100);
+
+        String digits = Long.toString(dollars);
+        if (cents < 0) builder.append('-');
+        builder.append('$');
+        for (int i = 0; i < digits.length(); i++) {
+            if (i > 0 && (digits.length() - i) % 3 == 0) builder.append(',');
+            builder.append(digits.charAt(i));
+        }
+        builder.append('.');
+        if (remainder < 10) builder.append('0');
+        builder.append(remainder);
+        return builder.toString();
+    }
+}
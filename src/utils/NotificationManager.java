@@ -39,7 +39,7 @@ public class NotificationManager {
      * @return the active NotificationManager, or a new one if one is not created
      * @post a single instance of this class exists
      */
-    public static utils.NotificationManager getInstance() {
+    public static synchronized utils.NotificationManager getInstance() {
         if (single_instance == null) {
             single_instance = new utils.NotificationManager();
         }
@@ -161,7 +161,7 @@ public class NotificationManager {
      * @return The ID number of the new timer as an Integer, which is needed to cancel it
      * @post A new timer is running a TimerTask to popup busy notifications
      */
-    public int startBusyTimer(){
+    public synchronized int startBusyTimer(){
         // Create the task to repeat busy popups
         TimerTask alertUser = new TimerTask() {
             @Override
@@ -186,7 +186,7 @@ public class NotificationManager {
      * @param timerID The ID number of the timer to cancel as an Integer
      * @post The matching timer has been canceled and will not continue to popup windows
      */
-    public void stopBusyTimer(int timerID){
+    public synchronized void stopBusyTimer(int timerID){
         // Make sure the key returns a valid timer
         Timer selectedTimer = busyTimers.get(timerID);
         if (selectedTimer!=null) {
@@ -3,6 +3,8 @@
  */
 package utils;
 
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.time.*;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -23,6 +25,16 @@ public class Saps {
 	public static final String TEAM_NAME = "FrequentFliers";
 	/** Universal Resource Locator (web address) of the CS509 reservation server */
 	public static final String SERVER_URL =  "http://cs509.cs.wpi.edu:8181/CS509.server/ReservationSystem";
+	/** The duration to wait for a connection to the server before failing a request */
+	public static final Duration SERVER_CONNECT_TIMEOUT = Duration.ofSeconds(10);
+	/** The default port of the search server started with the --server option */
+	public static final int SEARCH_SERVER_PORT = 8080;
+	/** The default time after which a search from the GUI or the search server stops and returns the flights found so far */
+	public static final Duration SEARCH_TIME_LIMIT = Duration.ofSeconds(30);
+	/** The file the airports, planes and legs fetched from the server are kept in between runs */
+	public static final Path CACHE_FILE = Paths.get(System.getProperty("user.home"), ".frequentfliers", "legs.cache");
+	/** The age after which airports, planes and legs read from the cache file are fetched again in the background */
+	public static final Duration CACHE_REFRESH_AGE = Duration.ofMinutes(15);
 
 	/** Upper limit used for latitude validation */
 	public static final double MAX_LATITUDE = 90.0;
@@ -56,8 +68,12 @@ public class Saps {
 	public static final Duration MIN_LAYOVER_TIME = Duration.ofMinutes(15);
 	/** Upper limit used for layover time */
 	public static final Duration MAX_LAYOVER_TIME = Duration.ofHours(4);
+	/** Upper limit of the duration of a single leg, used to bound the dates of legs fetched by a bidirectional search */
+	public static final Duration MAX_LEG_DURATION = Duration.ofHours(12);
 	/** The duration to wait before alerting the user that the program is busy */
 	public static final Duration BUSY_WAIT_TIME = Duration.ofSeconds(3);
+	/** The number of threads used to expand flights during a parallel search */
+	public static final int SEARCH_PARALLELISM = Runtime.getRuntime().availableProcessors();
 	/** A hashtable storing the airport code Strings as the keys with their corresponding Strings for TimeZoneIDs */
 
 	public static final Hashtable<String, String> AIRPORT_TIMEZONES = new Hashtable<String, String>(){